@@ -0,0 +1,28 @@
+package io.github.gdejohn.monty.benchmarks;
+
+import io.github.gdejohn.monty.Monty;
+
+import static io.github.gdejohn.monty.Card.Rank.ACE;
+import static io.github.gdejohn.monty.Card.Rank.EIGHT;
+import static io.github.gdejohn.monty.Card.Rank.NINE;
+import static io.github.gdejohn.monty.Card.Rank.SEVEN;
+import static io.github.gdejohn.monty.Card.Rank.TEN;
+import static io.github.gdejohn.monty.Card.Suit.CLUBS;
+import static io.github.gdejohn.monty.Card.Suit.HEARTS;
+
+/// A short-lived program that prints one equity and exits, launched by [StartupBenchmarks] to
+/// measure the time from starting the JVM to the first result.
+///
+/// It is also the training run for the class-data sharing archive built by the `startup`
+/// profile, which records every class it loads.
+public final class FirstEquity {
+    private FirstEquity() {}
+
+    public static void main(String[] args) {
+        var showdown = Monty.pocket(EIGHT.of(CLUBS), NINE.of(CLUBS))
+                            .flop(SEVEN.of(CLUBS), TEN.of(CLUBS), ACE.of(HEARTS))
+                            .players(4)
+                            .limit(10_000);
+        System.out.println(showdown.equity());
+    }
+}
@@ -35,13 +35,16 @@ import io.github.gdejohn.monty.Card;
 import io.github.gdejohn.monty.Deck;
 import io.github.gdejohn.monty.Hand;
 import io.github.gdejohn.monty.Monty;
+import io.github.gdejohn.monty.Monty.Showdown;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.util.List;
 import java.util.Spliterator;
 import java.util.function.IntConsumer;
 import java.util.random.RandomGenerator.SplittableGenerator;
@@ -92,6 +95,71 @@ public class MontyBenchmarks {
         return state.spliterator.tryAdvance((IntConsumer) blackhole::consume);
     }
 
+    private static final int TRIALS = 1 << 16;
+
+    private static final Monty monty = Monty.pocket(EIGHT.of(CLUBS), NINE.of(CLUBS))
+                                            .flop(SEVEN.of(CLUBS), TEN.of(CLUBS), ACE.of(HEARTS))
+                                            .players(4);
+
+    /// Benchmark counted trials on the fork/join engine behind [Monty#limit(long)].
+    @Benchmark
+    @OperationsPerInvocation(TRIALS)
+    public Showdown limit() {
+        return monty.limit(TRIALS);
+    }
+
+    /// Benchmark the same number of trials through a parallel stream, paying for a spliterator
+    /// call and an [IntConsumer] dispatch per trial.
+    @Benchmark
+    @OperationsPerInvocation(TRIALS)
+    public int limitStream() {
+        return monty.stream().limit(TRIALS).sum();
+    }
+
+    private static final Monty crowded = monty.players(23);
+
+    /// Benchmark counted trials with the most players, for comparison with [#curve()].
+    @Benchmark
+    @OperationsPerInvocation(TRIALS)
+    public Showdown limitCrowded() {
+        return crowded.limit(TRIALS);
+    }
+
+    /// Benchmark the same trials counted for every number of players from 2 to 23 at once.
+    @Benchmark
+    @OperationsPerInvocation(TRIALS)
+    public List<Showdown> curve() {
+        return crowded.curve(TRIALS);
+    }
+
+    private static final Monty.Turn turn =
+        Monty.pocket(EIGHT.of(CLUBS), NINE.of(CLUBS))
+             .flop(SEVEN.of(CLUBS), TEN.of(CLUBS), ACE.of(HEARTS))
+             .turn(TWO.of(DIAMONDS));
+
+    private static final Monty.River river = turn.river(THREE.of(SPADES));
+
+    /// Benchmark counted trials on the turn, where the hero's hand with each river card is
+    /// evaluated up front.
+    @Benchmark
+    @OperationsPerInvocation(TRIALS)
+    public Showdown limitTurn() {
+        return turn.players(4).limit(TRIALS);
+    }
+
+    /// Benchmark counted trials on the river, where the hero's hand is evaluated once.
+    @Benchmark
+    @OperationsPerInvocation(TRIALS)
+    public Showdown limitRiver() {
+        return river.players(4).limit(TRIALS);
+    }
+
+    /// Benchmark exact heads-up equity on the river against a uniform range.
+    @Benchmark
+    public double riverEquity() {
+        return river.equity();
+    }
+
     private static IntStream streamDefault() {
         return Monty.pocket(EIGHT.of(CLUBS), NINE.of(CLUBS))
                     .flop(SEVEN.of(CLUBS), TEN.of(CLUBS), ACE.of(HEARTS))
@@ -217,12 +285,85 @@ public class MontyBenchmarks {
         return hand.evaluate();
     }
 
+    @Benchmark
+    public long best(FastDealer dealer) {
+        return dealer.deal().best();
+    }
+
+    @Benchmark
+    public int order(FastDealer dealer) {
+        return dealer.deal().order();
+    }
+
+    @Benchmark
+    public int evaluateFiveCards(RandomDealer dealer) {
+        dealer.deck.shuffle();
+        var hand = Hand.empty();
+        for (int n = 0; n < 5; n++) {
+            hand = hand.add(dealer.deck.deal());
+        }
+        return hand.evaluatePartial();
+    }
+
+    @Benchmark
+    public int evaluateSixCards(RandomDealer dealer) {
+        dealer.deck.shuffle();
+        var hand = Hand.empty();
+        for (int n = 0; n < 6; n++) {
+            hand = hand.add(dealer.deck.deal());
+        }
+        return hand.evaluatePartial();
+    }
+
+    @Benchmark
+    public int evaluateEightOrBetter(RandomDealer dealer) {
+        dealer.deck.shuffle();
+        var hand = Hand.empty();
+        for (int n = 0; n < 7; n++) {
+            hand = hand.add(dealer.deck.deal());
+        }
+        return hand.evaluateEightOrBetter();
+    }
+
+    @State(Thread)
+    public static class ShortDeckDealer {
+        public final Deck deck = Deck.shortDeck();
+    }
+
+    @Benchmark
+    public int evaluateShortDeck(ShortDeckDealer dealer) {
+        dealer.deck.shuffle();
+        var hand = Hand.empty();
+        for (int n = 0; n < 7; n++) {
+            hand = hand.add(dealer.deck.deal());
+        }
+        return hand.evaluateShortDeck();
+    }
+
     @Benchmark
     public Card deal(RandomDealer dealer) {
         dealer.deck.shuffle();
         return dealer.deck.deal();
     }
 
+    /// Benchmark dealing seven cards one at a time, drawing a bounded random integer for each.
+    @Benchmark
+    public Hand dealSeven(RandomDealer dealer) {
+        dealer.deck.shuffle();
+        var hand = Hand.empty();
+        for (int n = 0; n < 7; n++) {
+            hand = hand.add(dealer.deck.deal());
+        }
+        return hand;
+    }
+
+    /// Benchmark dealing seven cards from a single random number.
+    @Benchmark
+    public Hand dealSevenBatched(RandomDealer dealer) {
+        dealer.deck.shuffle();
+        return dealer.deck.deal(Hand.empty(), 7);
+    }
+
     @Benchmark
     public void evaluateShared(RandomDealer dealer, Blackhole blackhole) {
         dealer.deck.shuffle();
@@ -284,4 +425,20 @@ public class MontyBenchmarks {
         dealer.deck.shuffle();
         return dealer.deck.deal();
     }
+
+    @Benchmark
+    public Hand dealSevenDefault(DefaultDealer dealer) {
+        dealer.deck.shuffle();
+        var hand = Hand.empty();
+        for (int n = 0; n < 7; n++) {
+            hand = hand.add(dealer.deck.deal());
+        }
+        return hand;
+    }
+
+    @Benchmark
+    public Hand dealSevenBatchedDefault(DefaultDealer dealer) {
+        dealer.deck.shuffle();
+        return dealer.deck.deal(Hand.empty(), 7);
+    }
 }
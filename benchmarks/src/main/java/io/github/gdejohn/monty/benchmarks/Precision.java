@@ -0,0 +1,293 @@
+package io.github.gdejohn.monty.benchmarks;
+
+import com.sun.management.OperatingSystemMXBean;
+import io.github.gdejohn.monty.Monty;
+import io.github.gdejohn.monty.Monty.Out;
+import io.github.gdejohn.monty.Monty.Showdown;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
+import java.util.stream.Stream;
+
+import static io.github.gdejohn.monty.Card.Rank.ACE;
+import static io.github.gdejohn.monty.Card.Rank.EIGHT;
+import static io.github.gdejohn.monty.Card.Rank.NINE;
+import static io.github.gdejohn.monty.Card.Rank.SEVEN;
+import static io.github.gdejohn.monty.Card.Rank.TEN;
+import static io.github.gdejohn.monty.Card.Rank.THREE;
+import static io.github.gdejohn.monty.Card.Rank.TWO;
+import static io.github.gdejohn.monty.Card.Suit.CLUBS;
+import static io.github.gdejohn.monty.Card.Suit.DIAMONDS;
+import static io.github.gdejohn.monty.Card.Suit.HEARTS;
+import static io.github.gdejohn.monty.Card.Suit.SPADES;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/// Accuracy per CPU: how fast the error of the estimated equity shrinks with the CPU time spent,
+/// for every splittable random number generator and every engine, measured against exact
+/// equities.
+///
+/// [MontyBenchmarks] measures throughput, which a change can improve by quietly giving up
+/// accuracy, like a generator whose split streams are correlated, or a sampler that deals some
+/// runouts more often than others. Here each estimate is compared with the exact heads-up equity
+/// of the same spot on the flop, the turn, and the river, so such a change shows up as a curve
+/// that stops falling, instead of a faster benchmark.
+///
+/// Each curve doubles the trials from 2^12 up to 2^20, running every level several times with
+/// independently seeded generators, and each point is the mean number of trials, the mean CPU
+/// seconds of the whole process and wall-clock seconds per run, the root-mean-square error
+/// against the exact equity, and the mean reported [standard error][Showdown#error()], which
+/// should match it. The curves are written as JSON to the given file, or standard output:
+///
+/// ```
+/// java -cp benchmarks/target/benchmarks.jar io.github.gdejohn.monty.benchmarks.Precision \
+///     precision.json
+/// ```
+///
+/// Usage: `Precision [output [max [repetitions]]]`, where the most trials per run is 2^max.
+public final class Precision {
+    /// The label for the library's own generator, used when no generator is given.
+    private static final String DEFAULT = "default";
+
+    /// The fewest trials per run, as a power of two.
+    private static final int MIN = 12;
+
+    private static final OperatingSystemMXBean os = ManagementFactory.getPlatformMXBean(
+        OperatingSystemMXBean.class
+    );
+
+    /// The most trials per run, as a power of two.
+    private final int max;
+
+    /// The number of runs at each level of each curve.
+    private final int repetitions;
+
+    /// The seed for the next run.
+    private long seed;
+
+    private Precision(int max, int repetitions) {
+        this.max = max;
+        this.repetitions = repetitions;
+    }
+
+    public static void main(String[] args) throws IOException {
+        var path = args.length > 0 ? args[0] : "-";
+        int max = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int repetitions = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        if (max < MIN || max > 40) {
+            throw new IllegalArgumentException(
+                "max = %d (must be at least %d and at most 40)".formatted(max, MIN)
+            );
+        } else if (repetitions < 2) {
+            throw new IllegalArgumentException(
+                "repetitions = %d (must be greater than 1)".formatted(repetitions)
+            );
+        }
+        var json = new Precision(max, repetitions).json();
+        if (path.equals("-")) {
+            var output = new PrintWriter(new OutputStreamWriter(System.out, UTF_8));
+            output.println(json);
+            output.flush();
+        } else {
+            Files.writeString(Path.of(path), json + System.lineSeparator(), UTF_8);
+        }
+    }
+
+    /// A spot with its exact heads-up equity.
+    private record Spot(String name, Monty monty, double exact) {}
+
+    /// The heads-up spots to estimate, with exact equities from enumerating every runout on the
+    /// flop and the turn, and from the sorted sweep on the river.
+    private static List<Spot> spots() {
+        var flop = Monty.pocket(EIGHT.of(CLUBS), NINE.of(CLUBS))
+                        .flop(SEVEN.of(CLUBS), TEN.of(CLUBS), ACE.of(HEARTS));
+        var turn = flop.turn(TWO.of(DIAMONDS));
+        var river = turn.river(THREE.of(SPADES));
+        return List.of(
+            new Spot("8c9c 7cTcAh", flop, mean(flop.outs())),
+            new Spot("8c9c 7cTcAh2d", turn, mean(turn.outs())),
+            new Spot("8c9c 7cTcAh2d3s", river, river.equity())
+        );
+    }
+
+    /// The exact equity from the exact equities of every next card, each equally likely.
+    private static double mean(List<Out> outs) {
+        return outs.stream().mapToDouble(Out::equity).average().orElseThrow();
+    }
+
+    /// The library's own generator, and then every splittable generator that isn't deprecated.
+    private static List<String> generators() {
+        return Stream.concat(
+            Stream.of(DEFAULT),
+            RandomGeneratorFactory.all()
+                                  .filter(RandomGeneratorFactory::isSplittable)
+                                  .filter(factory -> !factory.isDeprecated())
+                                  .map(RandomGeneratorFactory::name)
+                                  .sorted()
+        ).toList();
+    }
+
+    /// The results of a run.
+    private record Run(long trials, double equity, double error) {
+        static Run of(Showdown showdown) {
+            return new Run(showdown.trials(), showdown.equity(), showdown.error());
+        }
+
+        /// The results of a heads-up run from the number of losses, wins, and ties.
+        static Run of(long[] outcomes) {
+            long trials = outcomes[0] + outcomes[1] + outcomes[2];
+            double equity = (outcomes[1] + outcomes[2] / 2d) / trials;
+            double squares = (outcomes[1] + outcomes[2] / 4d) / trials;
+            double variance = (squares - equity * equity) * trials / (trials - 1);
+            return new Run(trials, equity, Math.sqrt(Math.max(variance, 0) / trials));
+        }
+    }
+
+    /// The ways of running trials.
+    private enum Engine {
+        /// Counted trials in blocks on fork/join tasks.
+        ///
+        /// @see Monty#limit(long)
+        LIMIT {
+            @Override
+            Run run(Monty monty, long trials) {
+                return Run.of(monty.limit(trials));
+            }
+        },
+
+        /// Counted trials through a parallel stream.
+        ///
+        /// @see Monty#stream()
+        STREAM {
+            @Override
+            Run run(Monty monty, long trials) {
+                long[] outcomes = monty.stream().limit(trials).collect(
+                    () -> new long[3],
+                    (counts, outcome) -> counts[outcome]++,
+                    (left, right) -> {
+                        for (int outcome = 0; outcome < left.length; outcome++) {
+                            left[outcome] += right[outcome];
+                        }
+                    }
+                );
+                return Run.of(outcomes);
+            }
+        },
+
+        /// Trials until a deadline, allowing 64 nanoseconds per trial, so that the number of
+        /// trials depends on the throughput.
+        ///
+        /// @see Monty#within(Duration)
+        WITHIN {
+            @Override
+            Run run(Monty monty, long trials) {
+                return Run.of(monty.within(Duration.ofNanos(trials << 6)));
+            }
+        };
+
+        abstract Run run(Monty monty, long trials);
+    }
+
+    /// A point on a curve: the means per run at one level.
+    private record Point(
+        double trials,
+        double cpuSeconds,
+        double wallSeconds,
+        double rmse,
+        double error
+    ) {}
+
+    /// The given spot with a newly seeded instance of the given generator.
+    private Monty seed(Monty monty, String generator) {
+        if (generator.equals(DEFAULT)) {
+            return monty; // seeded from entropy by the library
+        }
+        return monty.rng(RandomGeneratorFactory.<SplittableGenerator>of(generator).create(seed++));
+    }
+
+    /// Run the given spot with the given generator and engine repeatedly with the given number of
+    /// trials.
+    private Point measure(Spot spot, String generator, Engine engine, long trials) {
+        double runs = 0, squares = 0, errors = 0;
+        long cpu = 0, wall = 0;
+        for (int repetition = 0; repetition < repetitions; repetition++) {
+            var monty = seed(spot.monty(), generator);
+            long cpuStart = os.getProcessCpuTime(), wallStart = System.nanoTime();
+            var run = engine.run(monty, trials);
+            wall += System.nanoTime() - wallStart;
+            cpu += os.getProcessCpuTime() - cpuStart;
+            double difference = run.equity() - spot.exact();
+            runs += run.trials();
+            squares += difference * difference;
+            errors += run.error();
+        }
+        return new Point(
+            runs / repetitions,
+            cpu / 1e9 / repetitions,
+            wall / 1e9 / repetitions,
+            Math.sqrt(squares / repetitions),
+            errors / repetitions
+        );
+    }
+
+    /// Measure every curve, reporting progress on standard error, and format them as JSON.
+    private String json() {
+        var json = new StringBuilder();
+        json.append(String.format(
+            Locale.ROOT,
+            "{\"processors\":%d,\"repetitions\":%d,\"spots\":[",
+            Runtime.getRuntime().availableProcessors(),
+            repetitions
+        ));
+        var spots = spots();
+        var generators = generators();
+        for (int s = 0; s < spots.size(); s++) {
+            var spot = spots.get(s);
+            json.append(s == 0 ? "" : ",").append(String.format(
+                Locale.ROOT,
+                "{\"spot\":\"%s\",\"exact\":%.17g,\"curves\":[",
+                spot.name(),
+                spot.exact()
+            ));
+            var curves = new ArrayList<String>();
+            for (var generator : generators) {
+                for (var engine : Engine.values()) {
+                    engine.run(seed(spot.monty(), generator), 1L << max); // warm up
+                    var points = new ArrayList<String>();
+                    for (int level = MIN; level <= max; level++) {
+                        var point = measure(spot, generator, engine, 1L << level);
+                        points.add(String.format(
+                            Locale.ROOT,
+                            "{\"trials\":%.1f,\"cpuSeconds\":%.6g,\"wallSeconds\":%.6g,"
+                                + "\"rmse\":%.6g,\"error\":%.6g}",
+                            point.trials(),
+                            point.cpuSeconds(),
+                            point.wallSeconds(),
+                            point.rmse(),
+                            point.error()
+                        ));
+                    }
+                    curves.add(String.format(
+                        Locale.ROOT,
+                        "{\"rng\":\"%s\",\"engine\":\"%s\",\"points\":[%s]}",
+                        generator,
+                        engine.name().toLowerCase(Locale.ROOT),
+                        String.join(",", points)
+                    ));
+                    System.err.printf("%s %s %s%n", spot.name(), generator, engine);
+                }
+            }
+            json.append(String.join(",", curves)).append("]}");
+        }
+        return json.append("]}").toString();
+    }
+}
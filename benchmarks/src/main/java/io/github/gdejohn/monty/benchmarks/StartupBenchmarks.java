@@ -0,0 +1,93 @@
+package io.github.gdejohn.monty.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.openjdk.jmh.annotations.Mode.SingleShotTime;
+
+/// Time to first equity: how long it takes to launch a new JVM that runs [FirstEquity] and
+/// read the result, with and without an application class-data sharing archive.
+///
+/// The archive is made by a training run with `-XX:ArchiveClassesAtExit`, which records the
+/// parsed and verified classes that it loaded, including the generated classes behind lambdas,
+/// so that later runs map them in instead of loading them from scratch.
+@BenchmarkMode(SingleShotTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class StartupBenchmarks {
+    @State(Scope.Benchmark)
+    public static class Launcher {
+        @Param({"false", "true"})
+        public boolean archive;
+
+        private final List<String> command = new ArrayList<>();
+
+        private Path jsa;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException, InterruptedException {
+            var java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+            var classpath = System.getProperty("java.class.path");
+            command.add(java);
+            if (archive) {
+                jsa = Files.createTempFile("monty", ".jsa");
+                Files.delete(jsa);
+                launch(List.of(
+                    java,
+                    "-XX:ArchiveClassesAtExit=" + jsa,
+                    "-cp",
+                    classpath,
+                    FirstEquity.class.getName()
+                ));
+                command.add("-XX:SharedArchiveFile=" + jsa);
+            }
+            command.addAll(List.of("-cp", classpath, FirstEquity.class.getName()));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            if (jsa != null) {
+                Files.deleteIfExists(jsa);
+            }
+        }
+    }
+
+    /// Launch the given command and wait for its first line of output.
+    private static String launch(List<String> command) throws IOException, InterruptedException {
+        var process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try (var output = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            var line = output.readLine();
+            if (process.waitFor() != 0) {
+                throw new UncheckedIOException(new IOException("%s: %s".formatted(command, line)));
+            }
+            return line;
+        }
+    }
+
+    @Benchmark
+    public String firstEquity(Launcher launcher) throws IOException, InterruptedException {
+        return launch(launcher.command);
+    }
+}
@@ -0,0 +1,236 @@
+package io.github.gdejohn.monty.cli;
+
+import io.github.gdejohn.monty.Card;
+import io.github.gdejohn.monty.Monty;
+import io.github.gdejohn.monty.Monty.Showdown;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/// Estimate equity for a batch of spots read line by line, writing each result as soon as it is
+/// done.
+///
+/// Each line describes a spot as fields separated by whitespace: the hero's hole cards, then
+/// optionally the board, and then any of `players=N`, `trials=N`, `error=E`, and `game=G`
+/// (`holdem` by default, `short-deck`, or `hi-lo`), like `8c9c 7cTcAh players=4 error=0.001`.
+/// By default, a spot is heads-up and runs 2^20 trials. Given an error target, trials run in
+/// chunks until the standard error of the estimated equity is no greater than the target, or
+/// until the number of trials reaches the trial budget (2^27 by default). Blank lines and lines
+/// starting with `#` are skipped.
+///
+/// Each result is the spot followed by its equity, standard error, and number of trials,
+/// separated by tabs. A line that can't be parsed is reported on standard error with its line
+/// number and skipped, and the rest of the batch carries on.
+///
+/// The whole batch runs in one JVM on one fork/join pool, so the compiled simulation and the
+/// pool's threads carry over from one spot to the next, and every spot is split across every
+/// thread in the pool. At the end, the number of spots and trials and the throughput are
+/// reported on standard error.
+public final class Batch {
+    /// The number of trials for a spot without a trial budget or an error target.
+    private static final long TRIALS = 1 << 20;
+
+    /// The most trials for a spot with an error target but no trial budget.
+    private static final long BUDGET = 1 << 27;
+
+    /// The fewest trials to run between checks of the error target.
+    private static final long CHUNK = 1 << 16;
+
+    private final ForkJoinPool engine;
+
+    /// Make a new batch that simulates on the given number of threads.
+    public Batch(int parallelism) {
+        this.engine = new ForkJoinPool(parallelism);
+    }
+
+    /// Estimate equity for every spot in a file, or standard input, and write the results to
+    /// standard output.
+    ///
+    /// Usage: `Batch [input [parallelism]]`, where the input is a path, or `-` for standard
+    /// input, which is the default. By default, spots are simulated on every available
+    /// processor.
+    public static void main(String[] args) throws IOException {
+        var path = args.length > 0 ? args[0] : "-";
+        int parallelism = args.length > 1
+            ? Integer.parseInt(args[1])
+            : Runtime.getRuntime().availableProcessors();
+        var errors = new PrintWriter(new OutputStreamWriter(System.err, UTF_8), true);
+        try (
+            var input = path.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, UTF_8))
+                : Files.newBufferedReader(Path.of(path), UTF_8);
+            var output = new PrintWriter(
+                new BufferedWriter(new OutputStreamWriter(System.out, UTF_8))
+            )
+        ) {
+            errors.println(new Batch(parallelism).run(input, output, errors));
+        }
+    }
+
+    /// Estimate equity for every spot read from the given input, writing each result to the
+    /// given output and each line that can't be parsed to the given errors.
+    public Summary run(BufferedReader input, PrintWriter output, PrintWriter errors)
+        throws IOException {
+        long start = System.nanoTime();
+        long number = 0, spots = 0, failures = 0, trials = 0;
+        for (String line; (line = input.readLine()) != null; ) {
+            number++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            Spot spot;
+            try {
+                spot = Spot.parse(line);
+            } catch (IllegalArgumentException e) {
+                failures++;
+                errors.printf("line %d: %s%n", number, e.getMessage());
+                errors.flush();
+                continue;
+            }
+            var showdown = engine.invoke(ForkJoinTask.adapt(spot::simulate));
+            spots++;
+            trials += showdown.trials();
+            output.printf(
+                Locale.ROOT,
+                "%s\t%.6f\t%.6f\t%d%n",
+                line,
+                showdown.equity(),
+                showdown.error(),
+                showdown.trials()
+            );
+            output.flush();
+        }
+        return new Summary(spots, failures, trials, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /// The totals for a batch.
+    public record Summary(long spots, long failures, long trials, Duration elapsed) {
+        private double seconds() {
+            return elapsed.toNanos() / 1e9;
+        }
+
+        public double spotsPerSecond() {
+            return spots / seconds();
+        }
+
+        public double trialsPerSecond() {
+            return trials / seconds();
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                Locale.ROOT,
+                "%d spots (%d failed), %d trials in %.3f s: %.1f spots/s, %.4g trials/s",
+                spots,
+                failures,
+                trials,
+                seconds(),
+                spotsPerSecond(),
+                trialsPerSecond()
+            );
+        }
+    }
+
+    /// A parsed line: the spot to simulate, the most trials to run, and the standard error to
+    /// stop at, or zero to run every trial.
+    private record Spot(Monty monty, long trials, double error) {
+        static Spot parse(String line) {
+            String[] fields = line.split("\\s+");
+            List<Card> pocket = Card.parse(fields[0]);
+            if (pocket.size() != 2) {
+                throw new IllegalArgumentException(
+                    "pocket = %s (must be two cards)".formatted(fields[0])
+                );
+            }
+            int next = 1;
+            var board = "";
+            if (fields.length > 1 && fields[1].indexOf('=') < 0) {
+                board = fields[next++];
+            }
+            var game = "holdem";
+            int players = 2;
+            long trials = 0;
+            double error = 0;
+            for (; next < fields.length; next++) {
+                var field = fields[next];
+                int equals = field.indexOf('=');
+                var value = field.substring(equals + 1);
+                switch (equals < 0 ? field : field.substring(0, equals)) {
+                    case "game" -> game = value;
+                    case "players" -> players = (int) positive("players", value);
+                    case "trials" -> trials = positive("trials", value);
+                    case "error" -> error = error(value);
+                    case String name -> throw new IllegalArgumentException(
+                        "option = %s (must be players, trials, error, or game)".formatted(name)
+                    );
+                }
+            }
+            var monty = Monty.pocket(pocket.get(0), pocket.get(1))
+                             .game(game)
+                             .board(Card.parse(board));
+            return new Spot(
+                monty.players(players),
+                trials > 0 ? trials : error > 0 ? BUDGET : TRIALS,
+                error
+            );
+        }
+
+        /// Run every trial, or run trials in chunks until the standard error reaches the target.
+        Showdown simulate() {
+            var showdown = monty.limit(error > 0 ? Math.min(CHUNK, trials) : trials);
+            while (showdown.trials() < trials && showdown.error() > error) {
+                // the trials needed for the target error if the variance holds steady
+                double ratio = showdown.error() / error;
+                long needed = (long) Math.ceil(showdown.trials() * ratio * ratio);
+                long chunk = Math.max(CHUNK, needed - showdown.trials());
+                showdown = showdown.plus(monty.limit(Math.min(trials - showdown.trials(), chunk)));
+            }
+            return showdown;
+        }
+
+        private static long positive(String name, String value) {
+            long number;
+            try {
+                number = Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                number = 0;
+            }
+            if (number < 1 || name.equals("players") && number > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(
+                    "%s = %s (must be a positive integer)".formatted(name, value)
+                );
+            }
+            return number;
+        }
+
+        private static double error(String value) {
+            double error;
+            try {
+                error = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                error = 0;
+            }
+            if (!(error > 0 && error < 1)) {
+                throw new IllegalArgumentException(
+                    "error = %s (must be greater than 0 and less than 1)".formatted(value)
+                );
+            }
+            return error;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/// A command-line tool for estimating equity in Texas hold 'em over batches of spots.
+module io.github.gdejohn.monty.cli {
+    requires io.github.gdejohn.monty;
+}
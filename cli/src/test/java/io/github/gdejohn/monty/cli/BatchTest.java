@@ -0,0 +1,80 @@
+package io.github.gdejohn.monty.cli;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class BatchTest {
+    private static final Batch batch = new Batch(2);
+
+    private final StringWriter output = new StringWriter();
+
+    private final StringWriter errors = new StringWriter();
+
+    private Batch.Summary run(String input) throws IOException {
+        return batch.run(
+            new BufferedReader(new StringReader(input)),
+            new PrintWriter(output),
+            new PrintWriter(errors)
+        );
+    }
+
+    @Test
+    void trials() throws IOException {
+        var summary = run("""
+            # flush draw
+            8c9c 7cTcAh players=4 trials=200000
+
+            AsAh trials=1000
+            """);
+        assertThat(summary.spots()).isEqualTo(2);
+        assertThat(summary.failures()).isZero();
+        assertThat(summary.trials()).isEqualTo(201_000);
+        assertThat(errors.toString()).isEmpty();
+        String[] lines = output.toString().split("\n");
+        assertThat(lines).hasSize(2);
+        String[] fields = lines[0].split("\t");
+        assertThat(fields[0]).isEqualTo("8c9c 7cTcAh players=4 trials=200000");
+        assertThat(Double.parseDouble(fields[1])).isCloseTo(0.523d, within(0.005d));
+        assertThat(Double.parseDouble(fields[2])).isCloseTo(0.001d, within(0.0005d));
+        assertThat(fields[3]).isEqualTo("200000");
+        assertThat(lines[1]).startsWith("AsAh trials=1000\t").endsWith("\t1000");
+    }
+
+    @Test
+    void error() throws IOException {
+        run("8c9c 7cTcAh players=4 error=0.002\n");
+        String[] fields = output.toString().strip().split("\t");
+        assertThat(Double.parseDouble(fields[2])).isLessThanOrEqualTo(0.002d);
+        // a standard error of 0.002 takes about 60,000 trials, so the first chunk is enough
+        assertThat(Long.parseLong(fields[3])).isEqualTo(1 << 16);
+        output.getBuffer().setLength(0);
+        run("8c9c 7cTcAh players=4 error=0.0005 trials=100000\n");
+        fields = output.toString().strip().split("\t");
+        assertThat(Long.parseLong(fields[3])).isEqualTo(100_000);
+    }
+
+    @Test
+    void failures() throws IOException {
+        var summary = run("""
+            8c1c
+            8c9c 7cTc
+            8c9c players=x
+            8c9c speed=fast
+            8c9c 7cTcAh game=stud
+            8c9c 7cTcAh trials=1000
+            """);
+        assertThat(summary.spots()).isEqualTo(1);
+        assertThat(summary.failures()).isEqualTo(5);
+        assertThat(errors.toString().lines()).hasSize(5).allMatch(line -> line.startsWith("line "));
+        assertThat(errors.toString()).contains("line 3: players = x (must be a positive integer)");
+        assertThat(output.toString().lines()).hasSize(1);
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.gdejohn.monty.histories;
+
+import io.github.gdejohn.monty.Card;
+import io.github.gdejohn.monty.Monty;
+import io.github.gdejohn.monty.SidePots;
+
+import java.util.Arrays;
+import java.util.List;
+
+/// A hand in which at least one player was all-in and at least two players showed their hole
+/// cards.
+///
+/// Amounts are in hundredths of the units in the hand history, like cents or chips.
+///
+/// @param hand the number of the hand
+/// @param board the community cards dealt when the last bet was called
+/// @param total the total pot, including the rake
+/// @param rake the rake taken from the pot
+/// @param players the players who showed their hole cards
+public record AllIn(long hand, List<Card> board, long total, long rake, List<Player> players) {
+    /// A player who showed their hole cards.
+    ///
+    /// @param invested the total put into the pot, less any uncalled bet returned
+    /// @param collected the total won from the pot
+    public record Player(String name, Card first, Card second, long invested, long collected) {}
+
+    public AllIn {
+        board = List.copyOf(board);
+        players = List.copyOf(players);
+    }
+
+    /// The total pot, less the rake.
+    public long pot() {
+        return total - rake;
+    }
+
+    /// The exact expected chips won by each player, in order, in hundredths, averaged over every
+    /// way of dealing the rest of the board.
+    ///
+    /// Players who put in less than others can only win the main pot or the side pots they
+    /// covered, and money from players who folded goes to the main pot. The rake is taken from
+    /// every pot in proportion. Heads-up before the flop, there is only one pot, and the equity
+    /// is [looked up][Monty.Preflop#equity(Card, Card)] instead of enumerated.
+    ///
+    /// @see SidePots
+    public double[] chips() {
+        if (board.isEmpty() && players.size() == 2) {
+            var hero = players.getFirst();
+            var villain = players.getLast();
+            double equity = Monty.pocket(hero.first(), hero.second()).equity(
+                villain.first(),
+                villain.second()
+            );
+            return new double[] {equity * pot(), (1 - equity) * pot()};
+        }
+        var pots = SidePots.board(board.toArray(Card[]::new));
+        long invested = 0;
+        for (var player : players) {
+            pots = pots.player(player.first(), player.second(), player.invested());
+            invested += player.invested();
+        }
+        long dead = Math.max(total - invested, 0); // from players who folded
+        double net = (double) pot() / (invested + dead);
+        return Arrays.stream(pots.dead(dead).exact()).map(chips -> chips * net).toArray();
+    }
+
+    /// Each player's [expected chips][#chips()] as a fraction of the pot.
+    public double[] equities() {
+        return Arrays.stream(chips()).map(chips -> chips / pot()).toArray();
+    }
+}
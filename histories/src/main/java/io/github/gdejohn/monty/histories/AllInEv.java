@@ -0,0 +1,125 @@
+package io.github.gdejohn.monty.histories;
+
+import io.github.gdejohn.monty.Card;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/// Compute the all-in adjusted winnings of every player who showed down in every all-in hand in
+/// the given hand histories, and write them as CSV.
+///
+/// Hands are buffered in batches as they are parsed, the expected chips for each batch are
+/// computed in parallel, and the rows are written in the order of the hands before the next batch
+/// is parsed, so memory stays flat however many hands there are.
+///
+/// The adjusted winnings of a player are the chips they were expected to win from the main pot
+/// and any side pots, less what they invested, and their equity is those expected chips as a
+/// fraction of the whole pot.
+///
+/// ```
+/// java -jar histories.jar <output.csv> <history>...
+/// ```
+public final class AllInEv implements Consumer<AllIn> {
+    /// The number of hands computed in parallel at a time.
+    private static final int BATCH = 256;
+
+    private static final String HEADER =
+        "hand,player,cards,board,equity,invested,collected,adjusted";
+
+    private final Writer writer;
+
+    private final List<AllIn> batch = new ArrayList<>(BATCH);
+
+    private long hands;
+
+    AllInEv(Writer writer) throws IOException {
+        this.writer = writer;
+        writer.write(HEADER);
+        writer.write('\n');
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: histories <output.csv> <history>...");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        try (var writer = Files.newBufferedWriter(Path.of(args[0]))) {
+            var ev = new AllInEv(writer);
+            for (int n = 1; n < args.length; n++) {
+                HandHistories.parse(Path.of(args[n]), ev);
+            }
+            ev.flush();
+            System.out.printf(
+                "%d all-in hands in %.1f s%n",
+                ev.hands,
+                (System.nanoTime() - start) / 1e9
+            );
+        }
+    }
+
+    @Override
+    public void accept(AllIn hand) {
+        batch.add(hand);
+        if (batch.size() == BATCH) {
+            flush();
+        }
+    }
+
+    /// Compute the expected chips for the buffered hands, and write their rows.
+    void flush() {
+        var chips = batch.parallelStream().map(AllIn::chips).toList();
+        try {
+            for (int n = 0; n < batch.size(); n++) {
+                write(batch.get(n), chips.get(n));
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        hands += batch.size();
+        batch.clear();
+    }
+
+    private void write(AllIn hand, double[] chips) throws IOException {
+        String board = hand.board().stream().map(Card::toString).collect(Collectors.joining());
+        for (int n = 0; n < chips.length; n++) {
+            var player = hand.players().get(n);
+            double adjusted = chips[n] - player.invested();
+            writer.write(
+                String.format(
+                    Locale.ROOT,
+                    "%d,%s,%s%s,%s,%.4f,%s,%s,%s\n",
+                    hand.hand(),
+                    quote(player.name()),
+                    player.first(),
+                    player.second(),
+                    board,
+                    chips[n] / hand.pot(),
+                    hundredths(player.invested()),
+                    hundredths(player.collected()),
+                    hundredths(Math.round(adjusted))
+                )
+            );
+        }
+    }
+
+    private static String quote(String name) {
+        return name.contains(",") || name.contains("\"")
+            ? '"' + name.replace("\"", "\"\"") + '"'
+            : name;
+    }
+
+    private static String hundredths(long amount) {
+        long magnitude = Math.abs(amount);
+        return "%s%d.%02d".formatted(amount < 0 ? "-" : "", magnitude / 100, magnitude % 100);
+    }
+}
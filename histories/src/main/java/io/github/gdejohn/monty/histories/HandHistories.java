@@ -0,0 +1,381 @@
+package io.github.gdejohn.monty.histories;
+
+import io.github.gdejohn.monty.Card;
+import io.github.gdejohn.monty.histories.AllIn.Player;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+
+/// A streaming parser for hand histories in the PokerStars text format, which extracts the
+/// [all-in hands][AllIn] that went to showdown.
+///
+/// Files are memory-mapped a window at a time, and each window is scanned line by line in
+/// place: names are compared as byte ranges, amounts and cards are decoded straight from the
+/// bytes, and the state of the current hand lives in arrays that are reused from one hand to the
+/// next. Only the all-in hands themselves are allocated, so parsing runs in constant memory no
+/// matter how large the files are.
+///
+/// A window always ends at the start of a hand, so no hand is split between windows, and any hand
+/// longer than a whole window is an error.
+public final class HandHistories {
+    /// The largest number of bytes mapped at a time.
+    private static final int WINDOW = 1 << 26;
+
+    /// The most seats at a table.
+    private static final int SEATS = 10;
+
+    private static final byte[] HAND = bytes("PokerStars Hand #");
+    private static final byte[] SEAT = bytes("Seat ");
+    private static final byte[] COLON = bytes(": ");
+    private static final byte[] HOLE_CARDS = bytes("*** HOLE CARDS ***");
+    private static final byte[] FLOP = bytes("*** FLOP ***");
+    private static final byte[] TURN = bytes("*** TURN ***");
+    private static final byte[] RIVER = bytes("*** RIVER ***");
+    private static final byte[] SUMMARY = bytes("*** SUMMARY ***");
+    private static final byte[] UNCALLED = bytes("Uncalled bet (");
+    private static final byte[] RETURNED = bytes(") returned to ");
+    private static final byte[] TOTAL = bytes("Total pot ");
+    private static final byte[] RAKE = bytes("Rake ");
+    private static final byte[] COLLECTED = bytes(" collected ");
+    private static final byte[] BLINDS = bytes(": posts small & big blinds ");
+    private static final byte[] SMALL_BLIND = bytes(": posts small blind ");
+    private static final byte[] BIG_BLIND = bytes(": posts big blind ");
+    private static final byte[] ANTE = bytes(": posts the ante ");
+    private static final byte[] BETS = bytes(": bets ");
+    private static final byte[] CALLS = bytes(": calls ");
+    private static final byte[] RAISES = bytes(": raises ");
+    private static final byte[] TO = bytes(" to ");
+    private static final byte[] SHOWS = bytes(": shows [");
+    private static final byte[] ALL_IN = bytes("is all-in");
+
+    private final Consumer<? super AllIn> consumer;
+
+    private MappedByteBuffer buffer;
+
+    /// The end of the last amount parsed.
+    private int end;
+
+    // the state of the current hand, reused for every hand
+    private long hand;
+    private int seats;
+    private final int[] names = new int[SEATS];
+    private final int[] lengths = new int[SEATS];
+    private final long[] invested = new long[SEATS];
+    private final long[] committed = new long[SEATS]; // on the current street
+    private final long[] collected = new long[SEATS];
+    private final Card[] firsts = new Card[SEATS];
+    private final Card[] seconds = new Card[SEATS];
+    private final Card[] board = new Card[5];
+    private int dealt;
+    private int called; // the number of community cards dealt when the last bet was called
+    private boolean allIn;
+    private boolean summary;
+    private long pot;
+    private long rake;
+
+    private HandHistories(Consumer<? super AllIn> consumer) {
+        this.consumer = consumer;
+    }
+
+    private static byte[] bytes(String string) {
+        return string.getBytes(UTF_8);
+    }
+
+    /// Parse the hand histories in the given file, passing every all-in hand that went to
+    /// showdown to the given consumer in order.
+    public static void parse(Path path, Consumer<? super AllIn> consumer) throws IOException {
+        var parser = new HandHistories(consumer);
+        try (var channel = FileChannel.open(path, READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; ) {
+                long length = Math.min(WINDOW, size - position);
+                parser.buffer = channel.map(READ_ONLY, position, length);
+                boolean last = position + length == size;
+                int consumed = parser.window(last);
+                if (consumed == 0 && !last) {
+                    throw new IOException(
+                        "hand at byte %d (must be shorter than %d bytes)".formatted(
+                            position,
+                            WINDOW
+                        )
+                    );
+                }
+                position += consumed;
+            }
+        }
+    }
+
+    /// Parse the hands in the current window.
+    ///
+    /// @return the number of bytes consumed, up to the start of the first incomplete hand
+    private int window(boolean last) {
+        int limit = buffer.limit();
+        int start = -1; // the start of the current hand
+        for (int line = 0; line < limit; ) {
+            int newline = line;
+            while (newline < limit && buffer.get(newline) != '\n') {
+                newline++;
+            }
+            if (newline == limit && !last) {
+                return start < 0 ? line : start;
+            }
+            int end = newline > line && buffer.get(newline - 1) == '\r' ? newline - 1 : newline;
+            if (startsWith(line, end, HAND)) {
+                if (start >= 0) {
+                    finish();
+                }
+                start = line;
+                begin(line + HAND.length, end);
+            } else if (start >= 0) {
+                line(line, end);
+            }
+            line = newline + 1;
+        }
+        if (start >= 0) {
+            if (!last) {
+                return start;
+            }
+            finish();
+        }
+        return limit;
+    }
+
+    private void begin(int from, int to) {
+        hand = 0;
+        for (int index = from; index < to && isDigit(buffer.get(index)); index++) {
+            hand = hand * 10 + buffer.get(index) - '0';
+        }
+        seats = 0;
+        Arrays.fill(invested, 0);
+        Arrays.fill(committed, 0);
+        Arrays.fill(collected, 0);
+        Arrays.fill(firsts, null);
+        Arrays.fill(seconds, null);
+        dealt = 0;
+        called = 0;
+        allIn = false;
+        summary = false;
+        pot = 0;
+        rake = 0;
+    }
+
+    /// Parse one line of the current hand.
+    private void line(int from, int to) {
+        if (summary) {
+            if (startsWith(from, to, TOTAL)) {
+                pot = amount(from + TOTAL.length, to);
+                int rake = indexOf(end, to, RAKE);
+                this.rake = rake < 0 ? 0 : amount(rake + RAKE.length, to);
+            }
+        } else if (startsWith(from, to, SEAT) && dealt == 0 && seats < SEATS) {
+            int colon = indexOf(from, to, COLON);
+            int paren = lastIndexOf(from, to, (byte) '(');
+            if (colon > 0 && paren > colon + 2) {
+                names[seats] = colon + 2;
+                lengths[seats] = paren - 1 - (colon + 2);
+                seats++;
+            }
+        } else if (startsWith(from, to, FLOP)) {
+            street(from, to, 3);
+        } else if (startsWith(from, to, TURN)) {
+            street(from, to, 4);
+        } else if (startsWith(from, to, RIVER)) {
+            street(from, to, 5);
+        } else if (startsWith(from, to, SUMMARY)) {
+            street(from, from, dealt);
+            summary = true;
+        } else if (startsWith(from, to, UNCALLED)) {
+            long amount = amount(from + UNCALLED.length, to);
+            int returned = indexOf(end, to, RETURNED);
+            int seat = returned < 0 ? -1 : seat(returned + RETURNED.length, to);
+            if (seat >= 0) {
+                committed[seat] -= amount;
+            }
+        } else if (!startsWith(from, to, HOLE_CARDS)) {
+            action(from, to);
+        }
+    }
+
+    /// Parse a line starting with a player's name.
+    private void action(int from, int to) {
+        for (int seat = 0; seat < seats; seat++) {
+            int name = from + lengths[seat];
+            if (!matches(from, to, seat)) {
+                continue;
+            } else if (startsWith(name, to, COLLECTED)) {
+                collected[seat] += amount(name + COLLECTED.length, to);
+            } else if (startsWith(name, to, SHOWS) && name + SHOWS.length + 5 <= to) {
+                int cards = name + SHOWS.length;
+                firsts[seat] = card(cards);
+                seconds[seat] = card(cards + 3);
+            } else if (startsWith(name, to, ANTE)) {
+                invested[seat] += amount(name + ANTE.length, to);
+            } else if (startsWith(name, to, SMALL_BLIND)) {
+                committed[seat] += amount(name + SMALL_BLIND.length, to);
+            } else if (startsWith(name, to, BIG_BLIND)) {
+                committed[seat] += amount(name + BIG_BLIND.length, to);
+            } else if (startsWith(name, to, BLINDS)) {
+                committed[seat] += amount(name + BLINDS.length, to);
+            } else if (startsWith(name, to, BETS)) {
+                committed[seat] += amount(name + BETS.length, to);
+                bet(to);
+            } else if (startsWith(name, to, CALLS)) {
+                committed[seat] += amount(name + CALLS.length, to);
+                bet(to);
+            } else if (startsWith(name, to, RAISES)) {
+                amount(name + RAISES.length, to);
+                int total = indexOf(end, to, TO);
+                if (total >= 0) {
+                    committed[seat] = amount(total + TO.length, to);
+                }
+                bet(to);
+            } else {
+                continue;
+            }
+            return;
+        }
+    }
+
+    /// Record a bet, call, or raise that ends at the given index.
+    private void bet(int to) {
+        called = dealt;
+        allIn |= indexOf(end, to, ALL_IN) >= 0;
+    }
+
+    /// Move on to the next street, adding the cards in the last pair of brackets to the board.
+    private void street(int from, int to, int cards) {
+        for (int seat = 0; seat < seats; seat++) {
+            invested[seat] += committed[seat];
+            committed[seat] = 0;
+        }
+        int bracket = lastIndexOf(from, to, (byte) '[');
+        for (int index = bracket + 1; dealt < cards && bracket >= 0; index += 3) {
+            board[dealt++] = card(index);
+        }
+    }
+
+    /// Pass the current hand to the consumer if it was an all-in that went to showdown.
+    private void finish() {
+        street(0, 0, dealt);
+        var players = new ArrayList<Player>(2);
+        for (int seat = 0; seat < seats; seat++) {
+            if (firsts[seat] != null) {
+                var bytes = new byte[lengths[seat]];
+                buffer.get(names[seat], bytes);
+                players.add(
+                    new Player(
+                        new String(bytes, UTF_8),
+                        firsts[seat],
+                        seconds[seat],
+                        invested[seat],
+                        collected[seat]
+                    )
+                );
+            }
+        }
+        if (allIn && players.size() >= 2) {
+            consumer.accept(
+                new AllIn(hand, Arrays.asList(board).subList(0, called), pot, rake, players)
+            );
+        }
+    }
+
+    private Card card(int index) {
+        return Card.parse((char) buffer.get(index), (char) buffer.get(index + 1));
+    }
+
+    /// Parse an amount like `$1,234.5` into hundredths, skipping any currency symbol, and
+    /// remember where it ends.
+    private long amount(int from, int to) {
+        int index = from;
+        while (index < to && !isDigit(buffer.get(index))) {
+            index++;
+        }
+        long amount = 0;
+        int decimals = -1;
+        for (; index < to; index++) {
+            byte b = buffer.get(index);
+            if (isDigit(b) && decimals < 2) {
+                amount = amount * 10 + b - '0';
+                decimals += decimals < 0 ? 0 : 1;
+            } else if (b == '.' && decimals < 0 && index + 1 < to
+                && isDigit(buffer.get(index + 1))) {
+                decimals = 0;
+            } else if (b != ',' && !isDigit(b)) {
+                break;
+            }
+        }
+        end = index;
+        for (int n = Math.max(decimals, 0); n < 2; n++) {
+            amount *= 10;
+        }
+        return amount;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /// Whether the given line starts with the name of the given seat.
+    private boolean matches(int from, int to, int seat) {
+        int length = lengths[seat];
+        if (from + length > to) {
+            return false;
+        }
+        for (int n = 0; n < length; n++) {
+            if (buffer.get(from + n) != buffer.get(names[seat] + n)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /// The seat whose name spans exactly the given range, or -1.
+    private int seat(int from, int to) {
+        for (int seat = 0; seat < seats; seat++) {
+            if (to - from == lengths[seat] && matches(from, to, seat)) {
+                return seat;
+            }
+        }
+        return -1;
+    }
+
+    private boolean startsWith(int from, int to, byte[] prefix) {
+        if (to - from < prefix.length) {
+            return false;
+        }
+        for (int n = 0; n < prefix.length; n++) {
+            if (buffer.get(from + n) != prefix[n]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(int from, int to, byte[] needle) {
+        for (int index = from; index <= to - needle.length; index++) {
+            if (startsWith(index, to, needle)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private int lastIndexOf(int from, int to, byte b) {
+        for (int index = to - 1; index >= from; index--) {
+            if (buffer.get(index) == b) {
+                return index;
+            }
+        }
+        return -1;
+    }
+}
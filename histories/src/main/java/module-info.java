@@ -0,0 +1,4 @@
+/// A pipeline for all-in adjusted winnings over hand histories in Texas hold 'em.
+module io.github.gdejohn.monty.histories {
+    requires io.github.gdejohn.monty;
+}
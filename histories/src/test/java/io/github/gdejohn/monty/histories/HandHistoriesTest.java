@@ -0,0 +1,193 @@
+package io.github.gdejohn.monty.histories;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.gdejohn.monty.Card.Rank.ACE;
+import static io.github.gdejohn.monty.Card.Rank.JACK;
+import static io.github.gdejohn.monty.Card.Rank.KING;
+import static io.github.gdejohn.monty.Card.Rank.NINE;
+import static io.github.gdejohn.monty.Card.Rank.QUEEN;
+import static io.github.gdejohn.monty.Card.Rank.TEN;
+import static io.github.gdejohn.monty.Card.Rank.TWO;
+import static io.github.gdejohn.monty.Card.Suit.CLUBS;
+import static io.github.gdejohn.monty.Card.Suit.DIAMONDS;
+import static io.github.gdejohn.monty.Card.Suit.HEARTS;
+import static io.github.gdejohn.monty.Card.Suit.SPADES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HandHistoriesTest {
+    private static final String HISTORIES = """
+        PokerStars Hand #200000000001:  Hold'em No Limit ($0.10/$0.25 USD)
+        Table 'Alpha' 6-max Seat #1 is the button
+        Seat 1: Alice ($20 in chips)
+        Seat 2: Bob ($25 in chips)
+        Seat 3: Carol ($30.50 in chips)
+        Alice: posts the ante $0.05
+        Bob: posts small blind $0.10
+        Carol: posts big blind $0.25
+        *** HOLE CARDS ***
+        Dealt to Alice [Ah Kh]
+        Alice: raises $0.50 to $0.75
+        Bob: folds
+        Carol: raises $19.25 to $20 and is all-in
+        Alice: calls $19.25 and is all-in
+        *** FLOP *** [2c 7d 9s]
+        *** TURN *** [2c 7d 9s] [Qs]
+        *** RIVER *** [2c 7d 9s Qs] [3h]
+        *** SHOW DOWN ***
+        Alice: shows [Ah Kh] (high card Ace)
+        Carol: shows [Qc Qd] (three of a kind, Queens)
+        Carol collected $39.65 from pot
+        *** SUMMARY ***
+        Total pot $40.15 | Rake $0.50
+        Seat 1: Alice (button) showed [Ah Kh] and lost with high card Ace
+        Seat 3: Carol (big blind) showed [Qc Qd] and won ($39.65)
+
+        PokerStars Hand #200000000002:  Hold'em No Limit ($0.10/$0.25 USD)
+        Seat 1: Bob ($10 in chips)
+        Seat 2: Carol ($10 in chips)
+        Bob: posts small blind $0.10
+        Carol: posts big blind $0.25
+        *** HOLE CARDS ***
+        Bob: folds
+        Uncalled bet ($0.15) returned to Carol
+        Carol collected $0.20 from pot
+        *** SUMMARY ***
+        Total pot $0.20 | Rake $0
+
+        PokerStars Hand #200000000003:  Hold'em No Limit ($0.10/$0.25 USD)
+        Seat 1: Al ($10 in chips)
+        Seat 2: Alice ($1,000.00 in chips)
+        Seat 3: Carol ($10 in chips)
+        Carol: posts small blind $0.10
+        Al: posts big blind $0.25
+        *** HOLE CARDS ***
+        Alice: calls $0.25
+        Carol: calls $0.15
+        Al: checks
+        *** FLOP *** [Jh Td 2s]
+        Carol: bets $1
+        Al: raises $8.75 to $9.75 and is all-in
+        Alice: raises $20 to $29.75
+        Carol: calls $8.75 and is all-in
+        Uncalled bet ($20) returned to Alice
+        *** TURN *** [Jh Td 2s] [5c]
+        *** RIVER *** [Jh Td 2s 5c] [8h]
+        *** SHOW DOWN ***
+        Al: shows [Qs 9s] (a straight, Eight to Queen)
+        Alice: shows [Jd Jc] (three of a kind, Jacks)
+        Carol: shows [Ac Kc] (high card Ace)
+        Al collected $29.50 from pot
+        *** SUMMARY ***
+        Total pot $30 | Rake $0.50
+        """;
+
+    @TempDir
+    static Path directory;
+
+    private static List<AllIn> parse() throws IOException {
+        var path = Files.writeString(directory.resolve("histories.txt"), HISTORIES);
+        var hands = new ArrayList<AllIn>();
+        HandHistories.parse(path, hands::add);
+        return hands;
+    }
+
+    @Test
+    void preflop() throws IOException {
+        var hand = parse().getFirst();
+        assertThat(hand.hand()).isEqualTo(200_000_000_001L);
+        assertThat(hand.board()).isEmpty();
+        assertThat(hand.pot()).isEqualTo(39_65);
+        assertThat(hand.players()).containsExactly(
+            new AllIn.Player("Alice", ACE.of(HEARTS), KING.of(HEARTS), 20_05, 0),
+            new AllIn.Player("Carol", QUEEN.of(CLUBS), QUEEN.of(DIAMONDS), 20_00, 39_65)
+        );
+        assertThat(hand.equities()).containsExactly(
+            new double[] {0.462, 0.538},
+            within(0.001d)
+        );
+    }
+
+    @Test
+    void flop() throws IOException {
+        var hands = parse();
+        assertThat(hands).hasSize(2);
+        var hand = hands.getLast();
+        assertThat(hand.hand()).isEqualTo(200_000_000_003L);
+        assertThat(hand.board()).containsExactly(JACK.of(HEARTS), TEN.of(DIAMONDS), TWO.of(SPADES));
+        assertThat(hand.pot()).isEqualTo(29_50);
+        assertThat(hand.players()).extracting(AllIn.Player::name).containsExactly(
+            "Al",
+            "Alice",
+            "Carol"
+        );
+        assertThat(hand.players()).extracting(AllIn.Player::invested).containsOnly(10_00L);
+        double[] equities = hand.equities();
+        assertThat(equities[0] + equities[1] + equities[2]).isCloseTo(1, within(1e-9));
+        assertThat(equities[1]).isCloseTo(0.659d, within(0.001d));
+    }
+
+    @Test
+    void csv() throws IOException {
+        var writer = new StringWriter();
+        var ev = new AllInEv(writer);
+        parse().forEach(ev);
+        ev.flush();
+        assertThat(writer.toString().lines()).containsExactly(
+            "hand,player,cards,board,equity,invested,collected,adjusted",
+            "200000000001,Alice,AhKh,,0.4621,20.05,0.00,-1.73",
+            "200000000001,Carol,QcQd,,0.5379,20.00,39.65,1.33",
+            "200000000003,Al,Qs9s,JhTd2s,0.2315,10.00,29.50,-3.17",
+            "200000000003,Alice,JdJc,JhTd2s,0.6589,10.00,0.00,9.44",
+            "200000000003,Carol,AcKc,JhTd2s,0.1096,10.00,0.00,-6.77"
+        );
+    }
+
+    @Test
+    void sidePots() {
+        var hand = new AllIn(
+            1,
+            List.of(JACK.of(HEARTS), TEN.of(DIAMONDS), TWO.of(SPADES)),
+            50_00,
+            0,
+            List.of(
+                new AllIn.Player("Al", QUEEN.of(SPADES), NINE.of(SPADES), 10_00, 0),
+                new AllIn.Player("Alice", JACK.of(DIAMONDS), JACK.of(CLUBS), 20_00, 0),
+                new AllIn.Player("Carol", ACE.of(CLUBS), KING.of(CLUBS), 20_00, 0)
+            )
+        );
+        double[] chips = hand.chips();
+        assertThat(chips[0] + chips[1] + chips[2]).isCloseTo(50_00, within(1e-6));
+        // Al can only win the main pot
+        assertThat(chips[0]).isCloseTo(0.231451d * 30_00, within(0.01d));
+    }
+
+    @Test
+    void rake() {
+        var hand = new AllIn(
+            1,
+            List.of(JACK.of(HEARTS), TEN.of(DIAMONDS), TWO.of(SPADES)),
+            60_00, // including 10 from a player who folded
+            3_00,
+            List.of(
+                new AllIn.Player("Al", QUEEN.of(SPADES), NINE.of(SPADES), 10_00, 0),
+                new AllIn.Player("Alice", JACK.of(DIAMONDS), JACK.of(CLUBS), 20_00, 0),
+                new AllIn.Player("Carol", ACE.of(CLUBS), KING.of(CLUBS), 20_00, 0)
+            )
+        );
+        assertThat(hand.pot()).isEqualTo(57_00);
+        double[] chips = hand.chips();
+        assertThat(chips[0] + chips[1] + chips[2]).isCloseTo(57_00, within(1e-6));
+        // the rake comes out of the main pot of 40 and the side pot of 20 in proportion
+        assertThat(chips[0]).isCloseTo(0.231451d * 40_00 * 0.95d, within(0.01d));
+    }
+}
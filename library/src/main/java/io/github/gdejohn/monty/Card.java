@@ -1,20 +1,23 @@
 package io.github.gdejohn.monty;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
 
 import static java.util.Objects.checkIndex;
 import static java.util.stream.Collector.Characteristics.UNORDERED;
 import static java.util.stream.Collectors.joining;
-import static java.util.stream.IntStream.range;
 
 /// A playing card with one of thirteen [ranks][Rank] and one of four [suits][Suit].
 public final class Card {
     /// The rank of a [card][Card].
     public static final class Rank implements Comparable<Rank> {
-        private static final Rank[] ranks = range(0, 13).mapToObj(Rank::new)
-                                                        .toArray(Rank[]::new);
+        private static final Rank[] ranks = {
+            new Rank(0), new Rank(1), new Rank(2), new Rank(3), new Rank(4), new Rank(5),
+            new Rank(6), new Rank(7), new Rank(8), new Rank(9), new Rank(10), new Rank(11),
+            new Rank(12)
+        };
 
         public static final Rank TWO = ranks[0],
                                THREE = ranks[1],
@@ -85,8 +88,9 @@ public final class Card {
 
     /// The suit of a [card][Card].
     public static final class Suit {
-        private static final Suit[] suits = range(0, 4).mapToObj(Suit::new)
-                                                       .toArray(Suit[]::new);
+        private static final Suit[] suits = {
+            new Suit(0), new Suit(1), new Suit(2), new Suit(3)
+        };
 
         public static final Suit CLUBS = suits[0],
                                  DIAMONDS = suits[1],
@@ -140,14 +144,61 @@ public final class Card {
         this.offset = (byte) (offset(suit.ordinal) + rank.ordinal);
     }
 
-    private static final Card[] cards = Rank.all().flatMap(
-        rank -> Suit.all().map(suit -> new Card(rank, suit))
-    ).toArray(Card[]::new);
+    private static final Card[] cards = cards();
+
+    /// Every card, ascending by rank and then by suit.
+    ///
+    /// Plain loops rather than streams, since this runs at startup before anything else.
+    private static Card[] cards() {
+        var cards = new Card[52];
+        for (int rank = 0; rank < 13; rank++) {
+            for (int suit = 0; suit < 4; suit++) {
+                cards[suit + (rank << 2)] = new Card(Rank.ranks[rank], Suit.suits[suit]);
+            }
+        }
+        return cards;
+    }
 
     static Card of(int rank, int suit) {
         return cards[suit + (rank << 2)];
     }
 
+    /// The card with the given rank and suit written the same way as [#toString()], like `'A'`
+    /// and `'h'` for the ace of hearts.
+    ///
+    /// Nothing is allocated, so cards can be parsed straight out of large text files.
+    public static Card parse(char rank, char suit) {
+        int r = "23456789TJQKA".indexOf(rank);
+        int s = "cdhs".indexOf(suit);
+        if (r < 0 || s < 0) {
+            throw new IllegalArgumentException(
+                "card = %c%c (must be a rank in 23456789TJQKA and a suit in cdhs)".formatted(
+                    rank,
+                    suit
+                )
+            );
+        }
+        return Card.of(r, s);
+    }
+
+    /// The cards written one after another as by [#parse(char, char)], ignoring case, like
+    /// `"Ah7c"` or `"ah7C"` for the ace of hearts and the seven of clubs.
+    public static List<Card> parse(String cards) {
+        if (cards.length() % 2 != 0) {
+            throw new IllegalArgumentException(
+                "cards = %s (must be ranks followed by suits, like Ah7c)".formatted(cards)
+            );
+        }
+        var parsed = new Card[cards.length() / 2];
+        for (int card = 0; card < parsed.length; card++) {
+            parsed[card] = parse(
+                Character.toUpperCase(cards.charAt(2 * card)),
+                Character.toLowerCase(cards.charAt(2 * card + 1))
+            );
+        }
+        return List.of(parsed);
+    }
+
     static Card of(int offset) {
         return Card.of(
             checkIndex(Rank.ordinal(offset), 13),
@@ -155,22 +206,26 @@ public final class Card {
         );
     }
 
-    private static final Collector<Card,?,Hand> COLLECTOR = Collector.of(
-        Hand::empty,
-        Hand::add,
-        (first, second) -> {
-            Hand hand = first;
-            for (Card card : second) {
-                hand = hand.add(card);
-            }
-            return hand;
-        },
-        UNORDERED
-    );
+    /// Holds the collector, so that bootstrapping its lambdas doesn't slow down initializing
+    /// this class.
+    private static final class Collecting {
+        private static final Collector<Card,?,Hand> COLLECTOR = Collector.of(
+            Hand::empty,
+            Hand::add,
+            (first, second) -> {
+                Hand hand = first;
+                for (Card card : second) {
+                    hand = hand.add(card);
+                }
+                return hand;
+            },
+            UNORDERED
+        );
+    }
 
     /// Accepts cards and makes a hand out of them.
     public static Collector<Card,?,Hand> toHand() {
-        return COLLECTOR;
+        return Collecting.COLLECTOR;
     }
 
     /// Every card, ascending by suit alphabetically and then by rank.
@@ -180,6 +235,13 @@ public final class Card {
         );
     }
 
+    /// Every card from six through ace, ascending by suit alphabetically and then by rank.
+    ///
+    /// @see Deck#shortDeck()
+    public static Stream<Card> shortDeck() {
+        return all().filter(card -> card.rank().compareTo(Rank.SIX) >= 0);
+    }
+
     static String string(Stream<Card> cards) {
         return cards.map(Card::toString).collect(joining(",", "(", ")"));
     }
@@ -193,6 +255,38 @@ public final class Card {
         return n << 4;
     }
 
+    /// Every permutation of the four suits, each mapping a suit to `permutation[suit]`.
+    static final int[][] permutations = permutations();
+
+    private static int[][] permutations() {
+        var permutations = new int[24][];
+        int count = 0;
+        for (int n = 0; n < 256; n++) {
+            int suits = 0;
+            for (int suit = 0; suit < 4; suit++) {
+                suits |= 1 << (n >>> 2 * suit & 3);
+            }
+            if (suits == 0b1111) {
+                var permutation = new int[4];
+                for (int suit = 0; suit < 4; suit++) {
+                    permutation[suit] = n >>> 2 * suit & 3;
+                }
+                permutations[count++] = permutation;
+            }
+        }
+        return permutations;
+    }
+
+    /// Rearrange the suits of the given cards, represented as a bit vector in 16-bit blocks
+    /// by suit, according to the given [permutation][#permutations].
+    static long permute(long cards, int[] permutation) {
+        long permuted = 0L;
+        for (int suit = 0; suit < 4; suit++) {
+            permuted |= (cards >>> offset(suit) & 0x1FFF) << offset(permutation[suit]);
+        }
+        return permuted;
+    }
+
     /// The rank of this card.
     public Rank rank() {
         return Rank.of(this);
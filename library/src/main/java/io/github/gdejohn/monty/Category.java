@@ -1,16 +1,8 @@
 package io.github.gdejohn.monty;
 
-import io.github.gdejohn.monty.Card.Suit;
-
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.stream.Stream;
 
-import static io.github.gdejohn.monty.Card.offset;
-import static java.util.Comparator.comparing;
-import static java.util.Comparator.comparingInt;
-import static java.util.Comparator.comparingLong;
-
 /// The category of a [hand][Hand].
 public enum Category {
     HIGH_CARD(5, 407, 23_294_460),
@@ -21,49 +13,34 @@ public enum Category {
 
     THREE_OF_A_KIND(5, 575, 6_461_620),
 
-    STRAIGHT(2, 10, 6_180_020) {
-        private static final long SUIT = 1L << offset(3)  // spades
-                                       | 1L << offset(2)  // hearts
-                                       | 1L << offset(1)  // diamonds
-                                       | 1L << offset(0); // clubs
-
-        private static int straight(int high) {
-            return -(high << 9) & (high << 14) - 1;
-        }
-
-        @Override
-        Comparator<Card> order(Hand hand, int value) {
-            return comparingLong(
-                (Card card) -> (hand.mask() & (SUIT << card.rank().ordinal())) >>> card.offset()
-            ).thenComparing(super.order(hand, straight(value & -value)));
-        }
-    },
-
-    FLUSH(7, 1_277, 4_047_644) {
-        @Override
-        Comparator<Card> order(Hand hand, int value) {
-            return comparing(
-                Card::suit,
-                comparingInt(hand::count).reversed()
-            ).thenComparing(super.order(hand, value));
-        }
-    },
+    STRAIGHT(2, 10, 6_180_020),
+
+    FLUSH(7, 1_277, 4_047_644),
 
     FULL_HOUSE(4, 156, 3_473_184),
 
     FOUR_OF_A_KIND(5, 156, 224_848),
 
-    STRAIGHT_FLUSH(2, 10, 41_584) {
-        @Override
-        Comparator<Card> order(Hand hand, int value) {
-            return FLUSH.order(hand, value).thenComparing(STRAIGHT.order(hand, value));
-        }
-    };
+    STRAIGHT_FLUSH(2, 10, 41_584);
 
     static final int OFFSET = 26;
 
     private static final Category[] categories = Category.values();
 
+    /// Every category, in ascending order under short-deck rules, where a flush beats a full
+    /// house.
+    private static final Category[] shortDeck = {
+        HIGH_CARD,
+        ONE_PAIR,
+        TWO_PAIR,
+        THREE_OF_A_KIND,
+        STRAIGHT,
+        FULL_HOUSE,
+        FLUSH,
+        FOUR_OF_A_KIND,
+        STRAIGHT_FLUSH
+    };
+
     /// The number of bits needed to represent a hand in this category.
     final int count;
 
@@ -88,13 +65,7 @@ public enum Category {
         return categories[value >>> Category.OFFSET];
     }
 
-    Comparator<Card> order(Hand hand, int value) {
-        int SIGNIFICANCE = 1 << 13 | 1;
-        return comparing(
-            Card::rank,
-            comparingInt(
-                rank -> value & SIGNIFICANCE << rank.ordinal()
-            )
-        ).thenComparing(Card::suit, comparingInt(Suit::ordinal)).reversed();
+    static Category ofShortDeck(int value) {
+        return shortDeck[value >>> Category.OFFSET];
     }
 }
@@ -0,0 +1,130 @@
+package io.github.gdejohn.monty;
+
+import io.github.gdejohn.monty.Monty.Showdown;
+import io.github.gdejohn.monty.Monty.Spot;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/// Share one simulation among concurrent requests for the same spot.
+///
+/// Requests are keyed by the spot being simulated: the hero's hole cards, the community
+/// cards, the number of players, and the variant of the game. A request that arrives while
+/// another request for the same spot is still running attaches to that run instead of starting
+/// its own, and every request for the same number of trials receives the same [Showdown]. A
+/// request for more trials extends the run in flight, and a request for no more trials than have
+/// already been run gets the results so far immediately, so a late request may receive more
+/// trials than it asked for, but never fewer.
+///
+/// Runs advance in chunks. Whichever waiting request is free runs the next chunk on its own
+/// thread, so a request returns as soon as its own trials are done, even if the run continues for
+/// later requests. The run that handles a spot is started by the first request for it, and its
+/// random number generator is used for every chunk.
+public final class Coalescer {
+    /// The number of trials run at a time.
+    private static final long CHUNK = 1 << 16;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /// The runs in flight.
+    private final Map<Spot, Run> runs = new HashMap<>();
+
+    /// A simulation shared by every request for the same spot.
+    private final class Run {
+        private final Monty monty;
+
+        private final Condition progress = lock.newCondition();
+
+        /// The requests still waiting, keyed by number of trials.
+        private final TreeMap<Long, Request> requests = new TreeMap<>();
+
+        /// The results so far, or null if no trials have run yet.
+        private Showdown showdown;
+
+        private long trials;
+
+        private boolean running;
+
+        private RuntimeException failure;
+
+        private Run(Monty monty) {
+            this.monty = monty;
+        }
+    }
+
+    /// The requests for a given number of trials, which all receive the same results.
+    private static final class Request {
+        private Showdown showdown;
+    }
+
+    /// Run a given number of trials, or attach to a run in flight for the same spot.
+    ///
+    /// @see Monty#limit(long)
+    public Showdown limit(Monty monty, long trials) {
+        if (trials < 1) {
+            return monty.limit(trials);
+        }
+        var spot = monty.spot();
+        lock.lock();
+        try {
+            var run = runs.computeIfAbsent(spot, _ -> new Run(monty));
+            if (run.trials >= trials) {
+                return run.showdown.copy();
+            }
+            var request = run.requests.computeIfAbsent(trials, _ -> new Request());
+            while (request.showdown == null) {
+                if (run.failure != null) {
+                    throw run.failure;
+                } else if (run.running) {
+                    run.progress.awaitUninterruptibly();
+                } else {
+                    advance(spot, run);
+                }
+            }
+            return request.showdown;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /// Run the next chunk of trials, releasing the lock in the meantime.
+    private void advance(Spot spot, Run run) {
+        run.running = true;
+        long chunk = Math.min(CHUNK, run.requests.firstKey() - run.trials);
+        Showdown showdown;
+        lock.unlock();
+        try {
+            showdown = run.monty.limit(chunk);
+        } catch (RuntimeException e) {
+            lock.lock();
+            run.failure = e;
+            run.running = false;
+            runs.remove(spot);
+            run.progress.signalAll();
+            throw e;
+        }
+        lock.lock();
+        if (run.showdown == null) {
+            run.showdown = showdown;
+        } else {
+            run.showdown.combine(showdown);
+        }
+        run.trials += chunk;
+        var done = run.requests.headMap(run.trials, true);
+        if (!done.isEmpty()) {
+            var results = run.showdown.copy();
+            for (var request : done.values()) {
+                request.showdown = results;
+            }
+            done.clear();
+        }
+        if (run.requests.isEmpty()) {
+            runs.remove(spot);
+        }
+        run.running = false;
+        run.progress.signalAll();
+    }
+}
@@ -45,7 +45,7 @@ public final class Deck {
 
         @Override
         public long nextLong() {
-            throw new AssertionError();
+            return rng.nextLong();
         }
 
         @Override
@@ -69,6 +69,12 @@ public final class Deck {
         }
     }
 
+    /// The most cards dealt from a single random number by [#deal(Hand, int)].
+    ///
+    /// The number of ways to deal seven cards in order from a full deck is less than 2^40, so a
+    /// 64-bit random number is rejected with probability less than 2^-24.
+    private static final int BATCH = 7;
+
     private final SplittableGenerator rng;
 
     private final Card[] cards;
@@ -89,6 +95,16 @@ public final class Deck {
         this(new Generator());
     }
 
+    /// A 36-card deck for short-deck hold 'em, without the twos, threes, fours, or fives.
+    public static Deck shortDeck(SplittableGenerator rng) {
+        return new Deck(rng, Card.shortDeck());
+    }
+
+    /// A 36-card deck for short-deck hold 'em, without the twos, threes, fours, or fives.
+    public static Deck shortDeck() {
+        return shortDeck(new Generator());
+    }
+
     public Deck split() {
         return new Deck(rng.split(), Arrays.stream(cards));
     }
@@ -101,6 +117,17 @@ public final class Deck {
         return bound == 0;
     }
 
+    /// The first card dealt since the last shuffle, which every deal swaps to the end.
+    Card first() {
+        return dealt(0);
+    }
+
+    /// The card dealt after the given number of other cards since the last shuffle, which every
+    /// deal swaps to the end in the order they were dealt.
+    Card dealt(int n) {
+        return cards[cards.length - 1 - n];
+    }
+
     public Card deal() {
         int index = rng.nextInt(bound--);
         var card = cards[index];
@@ -108,4 +135,61 @@ public final class Deck {
         cards[bound] = card;
         return card;
     }
+
+    /// Deal the given number of cards and add them to the given hand.
+    ///
+    /// Rather than drawing a bounded random integer for every card, up to seven cards are dealt
+    /// from a single 64-bit random number, read as a mixed-radix fraction: multiplying it by the
+    /// number of cards left, the high half of the 128-bit product picks a card, and the low half
+    /// is multiplied by the number of cards left after that for the next card, and so on. One
+    /// check against the product of the radixes rejects the rare random numbers that would bias
+    /// the deal, so every ordered deal is equally likely.
+    ///
+    /// @see <a href="https://arxiv.org/abs/2408.06213">Batched Ranged Random Integer Generation
+    ///      (Nevin Brackett-Rozinsky & Daniel Lemire)</a>
+    public Hand deal(Hand hand, int count) {
+        if (count < 0 || count > bound) {
+            throw new IllegalArgumentException(
+                "count = %d (must be nonnegative and no greater than %d)".formatted(count, bound)
+            );
+        }
+        for (; count > BATCH; count -= BATCH) {
+            hand = batch(hand, BATCH);
+        }
+        return count == 0 ? hand : batch(hand, count);
+    }
+
+    /// Deal up to [seven][#BATCH] cards from one random number.
+    private Hand batch(Hand hand, int count) {
+        int end = bound;
+        draw(count);
+        for (int n = 1; n <= count; n++) {
+            hand = hand.add(cards[end - n]);
+        }
+        return hand;
+    }
+
+    /// Deal up to [seven][#BATCH] cards from one random number exactly like
+    /// [#deal(Hand, int)], but without adding them to a hand, for callers that look them up
+    /// with [#dealt(int)] instead.
+    void draw(int count) {
+        long product = bound;
+        for (int n = 1; n < count; n++) {
+            product *= bound - n;
+        }
+        long random = rng.nextLong();
+        if (Long.compareUnsigned(random * product, product) < 0) {
+            long threshold = Long.remainderUnsigned(-product, product);
+            while (Long.compareUnsigned(random * product, threshold) < 0) {
+                random = rng.nextLong();
+            }
+        }
+        for (int n = 0; n < count; n++) {
+            int index = (int) Math.unsignedMultiplyHigh(random, bound);
+            random *= bound--;
+            var card = cards[index];
+            cards[index] = cards[bound];
+            cards[bound] = card;
+        }
+    }
 }
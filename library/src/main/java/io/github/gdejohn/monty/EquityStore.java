@@ -0,0 +1,358 @@
+package io.github.gdejohn.monty;
+
+import io.github.gdejohn.monty.Monty.Showdown;
+import io.github.gdejohn.monty.Monty.Spot;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/// A persistent cache of simulation results, memory-mapped from a file so that it can be shared
+/// by every thread and process that opens it.
+///
+/// Results are keyed by the spot that was simulated: the hero's hole cards, the community cards,
+/// the number of players, and the variant of the game. Each entry records the histogram of
+/// outcomes, which determines the number of trials and the standard error of the equity.
+///
+/// The file is a fixed-capacity, open-addressing hash table with linear probing. Every entry is
+/// guarded by a sequence number, so reads never take a lock: a reader copies an entry
+/// optimistically and tries again if the sequence number changed in the meantime. A writer
+/// claims an entry by making its sequence number odd and publishes it by making it even again,
+/// which means the sequence number also counts the versions of the entry. Entries are never
+/// removed, and once the table is full, new spots are simply not stored.
+///
+/// A writer that dies between claiming an entry and publishing it leaves the sequence number odd.
+/// Every process holds a shared lock on the store while it is open, so the first process to open
+/// it again finds that it has the store to itself and repairs such torn entries: an entry that
+/// was being written for the first time is cleared, and any other torn entry keeps its key but
+/// loses its outcomes, so that probing past it still works. Closing a channel can release every
+/// lock that the JVM holds on the file, so every store on the same file in the same JVM shares
+/// one channel, mapping, and lock, which is released when the last of them is closed.
+///
+/// @see Monty#limit(long, EquityStore)
+public final class EquityStore implements AutoCloseable {
+    /// "MONTYEQS" in ASCII.
+    private static final long MAGIC = 0x4D4F_4E54_5945_5153L;
+
+    /// The version of the file format, bumped whenever the layout or the keys change.
+    private static final long FORMAT = 2;
+
+    /// The number of longs in the header: magic number, format, capacity, and padding.
+    private static final int HEADER = 8;
+
+    /// The number of longs in each entry.
+    private static final int ENTRY = 32;
+
+    // the fields of an entry, in longs
+    private static final int SEQUENCE = 0;
+    private static final int POCKET = 1;
+    private static final int BOARD = 2;
+    private static final int CONSTRAINTS = 3;
+    private static final int OUTCOMES = 4;
+
+    /// The largest capacity that fits in a single mapped buffer.
+    private static final int MAX_CAPACITY = 1 << 22;
+
+    /// The byte locked by every process that has the store open, which is far past the end of
+    /// the file so that locking it never interferes with the mapped entries.
+    private static final long LOCK = Long.MAX_VALUE - 1;
+
+    /// How many times to wait for a writer before giving up on an entry.
+    private static final int SPINS = 1 << 12;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(
+        long[].class,
+        ByteOrder.LITTLE_ENDIAN
+    );
+
+    /// The files open in this JVM, by their real paths, guarded by the class's monitor.
+    private static final Map<Path, Mapping> mappings = new HashMap<>();
+
+    /// A file mapped by one or more open stores, with the shared lock on it.
+    private static final class Mapping {
+        final Path path;
+
+        final FileChannel channel;
+
+        final FileLock lock;
+
+        final MappedByteBuffer buffer;
+
+        final int capacity;
+
+        /// The number of open stores on this file.
+        int stores;
+
+        Mapping(
+            Path path,
+            FileChannel channel,
+            FileLock lock,
+            MappedByteBuffer buffer,
+            int capacity
+        ) {
+            this.path = path;
+            this.channel = channel;
+            this.lock = lock;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+    }
+
+    private final Mapping mapping;
+
+    private final MappedByteBuffer buffer;
+
+    /// The number of entries, a power of two.
+    private final int capacity;
+
+    /// Whether this store has been closed, guarded by the class's monitor.
+    private boolean closed;
+
+    private EquityStore(Mapping mapping) {
+        this.mapping = mapping;
+        this.buffer = mapping.buffer;
+        this.capacity = mapping.capacity;
+    }
+
+    /// Open the store in the given file, creating it with the given number of entries if it is
+    /// empty or doesn't exist.
+    ///
+    /// The capacity of an existing store is fixed when it is created, so the given capacity is
+    /// ignored unless a new store is created. If no other process has the store open, entries
+    /// left torn by writers that died are repaired.
+    ///
+    /// A new store is created and its header written only under an exclusive lock, and anyone
+    /// else waits for a shared lock before reading the header. File locks don't exclude other
+    /// threads in the same JVM, so stores are opened one at a time within the JVM, and a file
+    /// that is already open in the JVM is shared instead of opened again.
+    public static synchronized EquityStore open(Path path, int capacity) throws IOException {
+        if (capacity < 1 || capacity > MAX_CAPACITY || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException(
+                "capacity = %d (must be a power of two no greater than %d)".formatted(
+                    capacity,
+                    MAX_CAPACITY
+                )
+            );
+        }
+        var mapping = Files.exists(path) ? mappings.get(path.toRealPath()) : null;
+        if (mapping == null) {
+            mapping = map(path, capacity);
+            mappings.put(mapping.path, mapping);
+        }
+        mapping.stores++;
+        return new EquityStore(mapping);
+    }
+
+    /// Open and map the given file, creating it if need be, and lock it.
+    private static Mapping map(Path path, int capacity) throws IOException {
+        var channel = FileChannel.open(path, CREATE, READ, WRITE);
+        try {
+            // the file is only created or repaired under the exclusive lock, so anyone else
+            // waits for the shared lock before looking at it
+            FileLock exclusive, shared = null;
+            while ((exclusive = channel.tryLock(LOCK, 1, false)) == null) {
+                shared = channel.lock(LOCK, 1, true);
+                if (channel.size() > 0) {
+                    break;
+                }
+                shared.release(); // whoever was creating the store died, so try again
+                Thread.onSpinWait();
+            }
+            boolean created = exclusive != null && channel.size() == 0;
+            if (!created) {
+                var header = channel.map(READ_WRITE, 0, HEADER * Long.BYTES);
+                if ((long) LONGS.getAcquire(header, 0) != MAGIC) {
+                    throw new IOException("not an equity store: " + path);
+                } else if ((long) LONGS.get(header, Long.BYTES) != FORMAT) {
+                    throw new IOException("unsupported equity store format: " + path);
+                }
+                capacity = (int) (long) LONGS.get(header, 2 * Long.BYTES);
+                if (capacity < 1 || capacity > MAX_CAPACITY || Integer.bitCount(capacity) != 1) {
+                    throw new IOException("corrupt equity store: " + path);
+                }
+            }
+            long size = (HEADER + (long) capacity * ENTRY) * Long.BYTES;
+            if (!created && channel.size() != size) {
+                throw new IOException("corrupt equity store: " + path);
+            }
+            var buffer = channel.map(READ_WRITE, 0, size);
+            if (created) {
+                LONGS.set(buffer, Long.BYTES, FORMAT);
+                LONGS.set(buffer, 2 * Long.BYTES, (long) capacity);
+                LONGS.setRelease(buffer, 0, MAGIC);
+            }
+            if (exclusive != null) {
+                repair(buffer, capacity);
+                exclusive.release();
+                shared = channel.lock(LOCK, 1, true);
+            }
+            return new Mapping(path.toRealPath(), channel, shared, buffer, capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /// Flush the store to the file and close it, along with the file itself if no other store in
+    /// this JVM has it open.
+    @Override
+    public void close() throws IOException {
+        synchronized (EquityStore.class) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.force();
+            if (--mapping.stores == 0) {
+                mappings.remove(mapping.path);
+                mapping.lock.release();
+                mapping.channel.close();
+            }
+        }
+    }
+
+    /// Repair every entry with an odd sequence number, which must have been left by a writer that
+    /// died, given that no other process has the store open.
+    private static void repair(MappedByteBuffer buffer, int capacity) {
+        for (int entry = 0; entry < capacity; entry++) {
+            long sequence = (long) LONGS.get(buffer, offset(entry, SEQUENCE));
+            if ((sequence & 1) == 0) {
+                continue;
+            }
+            for (int field = sequence == 1 ? POCKET : OUTCOMES; field < ENTRY; field++) {
+                LONGS.set(buffer, offset(entry, field), 0L);
+            }
+            LONGS.setRelease(buffer, offset(entry, SEQUENCE), sequence == 1 ? 0 : sequence + 1);
+        }
+        buffer.force();
+    }
+
+    /// The position in bytes of the given field of the given entry.
+    private static int offset(int entry, int field) {
+        return (HEADER + entry * ENTRY + field) * Long.BYTES;
+    }
+
+    private long get(int entry, int field) {
+        return (long) LONGS.get(buffer, offset(entry, field));
+    }
+
+    private void set(int entry, int field, long value) {
+        LONGS.set(buffer, offset(entry, field), value);
+    }
+
+    /// Read the sequence number of an entry, waiting for any writer to finish with it.
+    ///
+    /// @return the even sequence number, or -1 if the writer didn't finish in time
+    private long sequence(int entry) {
+        for (int spin = 0; spin < SPINS; spin++) {
+            long sequence = (long) LONGS.getAcquire(buffer, offset(entry, SEQUENCE));
+            if ((sequence & 1) == 0) {
+                return sequence;
+            }
+            Thread.onSpinWait();
+        }
+        return -1;
+    }
+
+    /// The entry that the given spot hashes to.
+    private int index(Spot spot) {
+        long hash = spot.pocket() * 0x9E37_79B9_7F4A_7C15L;
+        hash = (hash ^ spot.board()) * 0xBF58_476D_1CE4_E5B9L;
+        hash = (hash ^ spot.constraints()) * 0x94D0_49BB_1331_11EBL;
+        return (int) (hash >>> 32) & (capacity - 1);
+    }
+
+    /// Whether an entry is keyed by the given spot, which is safe to check without validating the
+    /// sequence number because keys never change once they are published.
+    private boolean matches(int entry, Spot spot) {
+        return get(entry, POCKET) == spot.pocket()
+            && get(entry, BOARD) == spot.board()
+            && get(entry, CONSTRAINTS) == spot.constraints();
+    }
+
+    /// Add the stored outcomes of the given spot to the given showdown.
+    ///
+    /// @return false if the spot isn't stored, or if its entry is still being written
+    boolean get(Spot spot, Showdown showdown) {
+        long[] outcomes = showdown.outcomes();
+        long[] copy = new long[outcomes.length];
+        int entry = index(spot);
+        for (int probe = 0; probe < capacity; probe++, entry = (entry + 1) & (capacity - 1)) {
+            long sequence = sequence(entry);
+            if (sequence <= 0) {
+                return false;
+            } else if (!matches(entry, spot)) {
+                continue;
+            }
+            while (true) {
+                for (int outcome = 0; outcome < copy.length; outcome++) {
+                    copy[outcome] = get(entry, OUTCOMES + outcome);
+                }
+                VarHandle.acquireFence();
+                long validation = (long) LONGS.getAcquire(buffer, offset(entry, SEQUENCE));
+                if (validation == sequence) {
+                    break;
+                } else if ((sequence = sequence(entry)) < 0) {
+                    return false;
+                }
+            }
+            for (int outcome = 0; outcome < copy.length; outcome++) {
+                outcomes[outcome] += copy[outcome];
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /// Merge newly simulated outcomes into the stored outcomes of the given spot.
+    ///
+    /// @return false if the store is full, or if the entry was held by another writer for too
+    ///         long
+    boolean add(Spot spot, Showdown showdown) {
+        long[] outcomes = showdown.outcomes();
+        if (OUTCOMES + outcomes.length > ENTRY) {
+            throw new IllegalArgumentException(
+                "outcomes = %d (must be no more than %d)".formatted(
+                    outcomes.length,
+                    ENTRY - OUTCOMES
+                )
+            );
+        }
+        int entry = index(spot);
+        for (int probe = 0; probe < capacity; ) {
+            long sequence = sequence(entry);
+            if (sequence < 0) {
+                return false;
+            } else if (sequence != 0 && !matches(entry, spot)) {
+                probe++;
+                entry = (entry + 1) & (capacity - 1);
+            } else if (LONGS.compareAndSet(buffer, offset(entry, SEQUENCE), sequence, sequence + 1)) {
+                if (sequence == 0) {
+                    set(entry, POCKET, spot.pocket());
+                    set(entry, BOARD, spot.board());
+                    set(entry, CONSTRAINTS, spot.constraints());
+                }
+                for (int outcome = 0; outcome < outcomes.length; outcome++) {
+                    long stored = sequence == 0 ? 0 : get(entry, OUTCOMES + outcome);
+                    set(entry, OUTCOMES + outcome, stored + outcomes[outcome]);
+                }
+                LONGS.setRelease(buffer, offset(entry, SEQUENCE), sequence + 2);
+                return true;
+            }
+        }
+        return false;
+    }
+}
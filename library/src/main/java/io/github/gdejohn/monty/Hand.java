@@ -1,20 +1,21 @@
 package io.github.gdejohn.monty;
 
 import io.github.gdejohn.monty.Card.Rank;
-import io.github.gdejohn.monty.Card.Suit;
 
 import java.util.Iterator;
+import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import static io.github.gdejohn.monty.Card.offset;
 
-/// A seven-card poker hand evaluator for Texas hold 'em.
+/// A five-, six-, or seven-card poker hand evaluator for Texas hold 'em.
 ///
 /// Mostly bitwise logical operators and shifts, some integer arithmetic (no multiplication, no
 /// division, no modulus), five reads from a 16KB lookup table (comfortably fits in L1 cache),
 /// nearly branchless (one small jump table, no loops, no conditional statements), garbage free,
-/// no standard library, everything final or effectively final.
+/// no standard library, everything final or effectively final. Five- and six-card hands are
+/// [evaluated separately][#evaluatePartial()], so seven-card hands never pay for them.
 public final class Hand implements Iterable<Card> {
     /// A bit vector representing ranks grouped by suit.
     ///
@@ -85,16 +86,18 @@ public final class Hand implements Iterable<Card> {
 
     /// Make a new hand containing the given card and this hand's cards.
     ///
-    /// Hands that contain exactly seven distinct cards can be [evaluated][#evaluate()].
+    /// Hands that contain exactly seven distinct cards can be [evaluated][#evaluate()], and hands
+    /// that contain five or six can be [evaluated as partial hands][#evaluatePartial()].
     /// Intermediate hands represent partial evaluations that can be reused for the community
     /// cards shared by every player.
     public Hand add(Card card) {
-        int ordinal = Rank.ordinal(card.offset());
+        return new Hand(cards | card.mask(), add(ranks, Rank.ordinal(card.offset())));
+    }
+
+    /// Increment the frequency of the given rank in the given [ranks][#ranks].
+    private static long add(long ranks, int ordinal) {
         long rank = ranks & COUNT << ordinal;
-        return new Hand(
-            cards | card.mask(),
-            ranks ^ rank | (rank << offset(1)) | ((rank - 1 >>> -1) << ordinal)
-        );
+        return ranks ^ rank | (rank << offset(1)) | ((rank - 1 >>> -1) << ordinal);
     }
 
     /// Determine the value of this hand.
@@ -119,16 +122,63 @@ public final class Hand implements Iterable<Card> {
     /// This partitions all 133,784,560 seven-card hands (52 choose 7) into 14 buckets such that
     /// every hand in each bucket can be evaluated with the same expression, which is selected by
     /// a tableswitch on the hash code.
+    ///
+    /// The value of a hand without exactly seven cards is unspecified.
+    ///
+    /// @see #evaluatePartial()
     public int evaluate() {
+        return seven(values, 0, 5, 6);
+    }
+
+    /// Determine the value of this hand, which may be a partial hand with only five or six cards.
+    ///
+    /// Partial hands, like the flop or the turn together with a player's hole cards, are
+    /// [evaluated][#evaluate()] the same way, but with a separate jump table that accounts for
+    /// fewer kickers. Their values are on the same scale as seven-card hands, so a hand made on
+    /// the turn can be compared directly with a hand made on the river. Seven-card hands get the
+    /// same value as [#evaluate()], at the cost of checking the number of cards first. The value
+    /// of a hand with fewer than five or more than seven cards is -1.
+    public int evaluatePartial() {
+        return evaluate(values, 0, 5, 6);
+    }
+
+    /// Determine the value of this hand under short-deck rules.
+    ///
+    /// Short-deck hold 'em (also known as six-plus hold 'em) is played with a 36-card
+    /// [deck][Deck#shortDeck()] that omits the twos, threes, fours, and fives. A flush beats a
+    /// full house, and the ace can play low in the straight `[9,8,7,6,A]`. Otherwise, hands are
+    /// [evaluated][#evaluate()] the same way, but with a separate lookup table that only covers
+    /// the nine remaining ranks.
+    ///
+    /// Short-deck values are ordered among themselves, but they are not comparable with the
+    /// values of ordinary hands, and their categories are determined by [#categoryShortDeck()].
+    public int evaluateShortDeck() {
+        return seven(shortDeckValues, 4, 6, 5);
+    }
+
+    /// Evaluate this hand with five, six, or seven cards and the given lookup table.
+    ///
+    /// Table indices are shifted right by the given number of ranks, and flushes and full houses
+    /// are assigned the given categories.
+    private int evaluate(short[] values, int shift, int flushes, int fullHouses) {
+        return switch (size()) {
+            case 7 -> seven(values, shift, flushes, fullHouses);
+            case 6, 5 -> partial(values, shift, flushes, fullHouses);
+            default -> -1; // invalid hand
+        };
+    }
+
+    /// Evaluate a hand with exactly seven cards.
+    private int seven(short[] values, int shift, int flushes, int fullHouses) {
         int kickers = slice(0, ranks),
               pairs = slice(1, ranks),
               trips = slice(2, ranks),
               quads = slice(3, ranks),
-              value = values[kickers | pairs | trips | quads],
-              flush = values[slice(0, cards)]  // clubs
-                    | values[slice(1, cards)]  // diamonds
-                    | values[slice(2, cards)]  // hearts
-                    | values[slice(3, cards)], // spades
+              value = values[(kickers | pairs | trips | quads) >>> shift],
+              flush = values[slice(0, cards) >>> shift]  // clubs
+                    | values[slice(1, cards) >>> shift]  // diamonds
+                    | values[slice(2, cards) >>> shift]  // hearts
+                    | values[slice(3, cards) >>> shift], // spades
            category = ((-pairs ^ -drop(drop(pairs))) >>> -1)   << 3
                     | (-(drop(pairs) | drop(trips)) >>> -1)    << 2
                     | (-trips >>> -1 | (flush | -flush) >> -1) << 1
@@ -140,10 +190,10 @@ public final class Hand implements Iterable<Card> {
             case +0b0100 -> evaluate(2, drop(pairs), drop(last(pairs) | kickers)); // two pair
             case +0b0010 -> evaluate(3, trips, drop(drop(kickers))); // three of a kind
             case +0b1111 -> evaluate(4, ~value); // straight
-            case ~0b0001 -> evaluate(5, flush); // flush
-            case +0b1010 -> evaluate(6, trips, pairs); // full house
-            case +0b1110 -> evaluate(6, trips, drop(pairs)); // full house
-            case +0b0110 -> evaluate(6, drop(trips), last(trips)); // full house
+            case ~0b0001 -> evaluate(flushes, flush); // flush
+            case +0b1010 -> evaluate(fullHouses, trips, pairs); // full house
+            case +0b1110 -> evaluate(fullHouses, trips, drop(pairs)); // full house
+            case +0b0110 -> evaluate(fullHouses, drop(trips), last(trips)); // full house
             case +0b0001 -> evaluate(7, quads, drop(drop(kickers))); // four of a kind
             case +0b1001 -> evaluate(7, quads, drop(pairs | kickers)); // four of a kind
             case +0b0011 -> evaluate(7, quads, trips); // four of a kind
@@ -152,6 +202,138 @@ public final class Hand implements Iterable<Card> {
         };
     }
 
+    /// Evaluate a partial hand with five or six cards.
+    ///
+    /// The hash function is the same as for seven cards, but some buckets are impossible, and
+    /// there are fewer kickers to drop: none for five cards, only the lowest one for six cards.
+    private int partial(short[] values, int shift, int flushes, int fullHouses) {
+        int excess = 5 - size(), // zero for five cards, all 1-bits for six cards
+            kickers = slice(0, ranks) & ~(last(slice(0, ranks)) & excess),
+              pairs = slice(1, ranks),
+              trips = slice(2, ranks),
+              quads = slice(3, ranks),
+              value = values[(slice(0, ranks) | pairs | trips | quads) >>> shift],
+              flush = values[slice(0, cards) >>> shift]  // clubs
+                    | values[slice(1, cards) >>> shift]  // diamonds
+                    | values[slice(2, cards) >>> shift]  // hearts
+                    | values[slice(3, cards) >>> shift], // spades
+           category = ((-pairs ^ -drop(drop(pairs))) >>> -1)   << 3
+                    | (-(drop(pairs) | drop(trips)) >>> -1)    << 2
+                    | (-trips >>> -1 | (flush | -flush) >> -1) << 1
+                    | (-quads >>> -1 | (value & (flush - 1)) >>> -4);
+        return switch (category) {
+            case +0b0000 -> evaluate(0, value); // high card
+            case +0b1000 -> evaluate(1, pairs, kickers); // one pair
+            case +0b1100 -> evaluate(2, pairs, kickers); // two pair
+            case +0b0100 -> evaluate(2, drop(pairs), last(pairs)); // two pair
+            case +0b0010 -> evaluate(3, trips, kickers); // three of a kind
+            case +0b1111 -> evaluate(4, ~value); // straight
+            case ~0b0001 -> evaluate(flushes, flush); // flush
+            case +0b1010 -> evaluate(fullHouses, trips, pairs); // full house
+            case +0b0110 -> evaluate(fullHouses, drop(trips), last(trips)); // full house
+            case +0b0001 -> evaluate(7, quads, kickers); // four of a kind
+            case +0b1001 -> evaluate(7, quads, pairs); // four of a kind
+            case ~0b0000 -> evaluate(8, ~flush); // straight flush
+            default -> -1; // invalid hand
+        };
+    }
+
+    /// Determine the ace-to-five low value of this hand.
+    ///
+    /// Ace-to-five lowball (as in razz, and the low half of hi-lo games) ranks the best five-card
+    /// hand that can be made from five or more cards by how low it is: the ace always plays low,
+    /// straights and flushes don't count, pairs count against the hand, and the best possible
+    /// hand is `[5,4,3,2,A]`. Low values are ordered so that a hand with a greater value beats a
+    /// hand with a lesser value, like [high values][#evaluate()], but the two scales are not
+    /// comparable with each other. The low value of a hand with fewer than five cards is -1.
+    ///
+    /// The best low hand is chosen greedily from the [rank frequencies][#ranks], one layer at a
+    /// time: the lowest distinct ranks first, then the lowest ranks occurring at least twice to
+    /// make pairs if there are fewer than five distinct ranks, and so on. The chosen ranks are
+    /// packed like high values, with the ranks rotated so that the ace is the least significant,
+    /// and then inverted so that lower hands get greater values.
+    public int evaluateAceToFive() {
+        int four = aceLow(slice(3, ranks)), // ranks occurring four times
+           three = aceLow(slice(2, ranks)) | four, // ranks occurring at least three times
+             two = aceLow(slice(1, ranks)) | three, // ranks occurring at least twice
+             one = aceLow(slice(0, ranks)) | two, // every distinct rank
+           first = lowest(one, 5),
+          second = lowest(two, 5 - bitCount(first)),
+           third = lowest(three, 5 - bitCount(first) - bitCount(second)),
+          fourth = lowest(four, 5 - bitCount(first) - bitCount(second) - bitCount(third)),
+            hash = bitCount(second) | bitCount(third) << 2 | bitCount(fourth) << 3;
+        return size() < 5 ? -1 : switch (hash) {
+            case 0b0000 -> low(0, first); // no pair
+            case 0b0001 -> low(1, second, first ^ second); // one pair
+            case 0b0010 -> low(2, second, first ^ second); // two pair
+            case 0b0101 -> low(3, third, first ^ third); // three of a kind
+            case 0b0110 -> low(6, third, second ^ third); // full house
+            case 0b1101 -> low(7, fourth, first ^ fourth); // four of a kind
+            default -> -1; // invalid hand
+        };
+    }
+
+    /// Determine the eight-or-better low value of this hand.
+    ///
+    /// A hand qualifies for the low half of the pot in hi-lo games if it can make five distinct
+    /// ranks from eight down to ace. Qualifying hands have the same values as
+    /// [ace-to-five lowball][#evaluateAceToFive()], so the best low hand is still `[5,4,3,2,A]`.
+    /// The value of a hand that doesn't qualify is -1.
+    public int evaluateEightOrBetter() {
+        int distinct = slice(0, ranks) | slice(1, ranks) | slice(2, ranks) | slice(3, ranks),
+                 low = lowest(aceLow(distinct) & EIGHT_OR_BETTER, 5);
+        return bitCount(low) == 5 ? low(0, low) : -1;
+    }
+
+    /// Determine the deuce-to-seven low value of this hand.
+    ///
+    /// Deuce-to-seven lowball (as in the draw games) ranks five-card hands in the reverse order
+    /// of [high values][#evaluate()]: the ace always plays high, so `[5,4,3,2,A]` is an ace-high
+    /// hand rather than a straight, straights and flushes count against the hand, and the best
+    /// possible hand is `[7,5,4,3,2]` in at least two suits. A hand with a greater value beats a
+    /// hand with a lesser value. The value of a hand without exactly five cards is -1.
+    public int evaluateDeuceToSeven() {
+        int wheel = 0b1_0000_0000_1111, // [5,4,3,2,A]
+            value = size() == 5 ? evaluatePartial() : -1;
+        return switch (value) {
+            case -1 -> -1; // invalid hand
+            case 4 << Category.OFFSET | 0b1000 -> ~evaluate(0, wheel) & LOW; // ace high
+            case 8 << Category.OFFSET | 0b1000 -> ~evaluate(5, wheel) & LOW; // ace-high flush
+            default -> ~value & LOW;
+        };
+    }
+
+    /// The 30 low-order bits used by hand values.
+    private static final int LOW = (1 << 30) - 1;
+
+    /// The ranks from ace to eight, with the ace [rotated][#aceLow(int)] to the lowest position.
+    private static final int EIGHT_OR_BETTER = (1 << 8) - 1;
+
+    /// Rotate the given ranks so that the ace is the least significant rank instead of the most.
+    private static int aceLow(int ranks) {
+        return (ranks << 1 | ranks >>> 12) & (1 << 13) - 1;
+    }
+
+    /// Select the given number of least significant 1-bits, or every 1-bit if there are fewer.
+    private static int lowest(int ranks, int count) {
+        return Integer.expand((1 << count) - 1, ranks);
+    }
+
+    private static int bitCount(int ranks) {
+        return Integer.bitCount(ranks);
+    }
+
+    /// Pack the category and ace-low ranks together, inverted so that lower hands are greater.
+    private static int low(int category, int ranks) {
+        return ~evaluate(category, ranks) & LOW;
+    }
+
+    /// Pack the category, high-order ace-low ranks, and low-order ace-low ranks together,
+    /// inverted so that lower hands are greater.
+    private static int low(int category, int high, int low) {
+        return ~evaluate(category, high, low) & LOW;
+    }
+
     /// Pack the category and ranks together.
     private static int evaluate(int category, int ranks) {
         return category << Category.OFFSET | ranks;
@@ -249,8 +431,73 @@ public final class Hand implements Iterable<Card> {
         return values;
     }
 
+    /// A lookup table like [values][#values], but for short-deck hands.
+    ///
+    /// Indices are shifted right by four ranks, since there are no twos, threes, fours, or fives
+    /// in a short deck, which shrinks the table to 1KB. The ace also plays low in the straight
+    /// `[9,8,7,6,A]`, represented by the inverted high rank of nine.
+    ///
+    /// @see #shortDeckValues()
+    private static final short[] shortDeckValues = shortDeckValues();
+
+    /// Generate the short-deck lookup table.
+    private static short[] shortDeckValues() {
+        // ranks
+        int SIX = 1 << 4,
+          SEVEN = 1 << 5,
+          EIGHT = 1 << 6,
+           NINE = 1 << 7,
+            TEN = 1 << 8,
+           JACK = 1 << 9,
+          QUEEN = 1 << 10,
+           KING = 1 << 11,
+            ACE = 1 << 12;
+
+        int max = ACE | KING | QUEEN | JACK | TEN | NINE | EIGHT; // max key
+        var values = new short[(max >>> 4) + 1]; // 2 bytes * 0b111111100 + 2 bytes = 1KB
+
+        // map sets of five, six, or seven ranks to their five highest ranks
+        for (int a = ACE; a >= TEN; a >>>= 1)
+            for (int b = a >>> 1; b >= NINE; b >>>= 1)
+                for (int c = b >>> 1; c >= EIGHT; c >>>= 1)
+                    for (int d = c >>> 1; d >= SEVEN; d >>>= 1)
+                        for (int e = d >>> 1; e >= SIX; e >>>= 1)
+                            for (int f = e; f >= SIX; f >>>= 1)
+                                for (int g = f; g >= SIX; g >>>= 1)
+                                    values[(a | b | c | d | e | f | g) >>> 4] = (short) (a | b | c | d | e);
+
+        int wheel = ACE | NINE | EIGHT | SEVEN | SIX; // ace plays low
+
+        // every way of choosing zero, one, or two other ranks with the wheel
+        for (int a = ACE; a >= SIX; a >>>= 1)
+            for (int b = a; b >= SIX; b >>>= 1)
+                values[(wheel | a | b) >>> 4] = (short) ~NINE; // 9-high straight
+
+        // remap straights to their high rank, inverted, in ascending order so that the highest
+        // straight in a set of ranks overwrites any lower straights
+        for (int high = TEN; high <= ACE; high <<= 1) {
+            int straight = -(high >>> 4) & ((high << 1) - 1);
+
+            // every way of choosing zero, one, or two other ranks with the straight
+            for (int a = ACE; a >= SIX; a >>>= 1)
+                for (int b = a; b >= SIX; b >>>= 1)
+                    values[(straight | a | b) >>> 4] = (short) ~high;
+        }
+
+        return values;
+    }
+
     public Category category() {
-        return Category.of(this.evaluate());
+        return Category.of(this.evaluatePartial());
+    }
+
+    /// The category of this hand under short-deck rules.
+    ///
+    /// Like [#category()], this also works for partial hands with five or six cards.
+    ///
+    /// @see #evaluateShortDeck()
+    public Category categoryShortDeck() {
+        return Category.ofShortDeck(this.evaluate(shortDeckValues, 4, 6, 5));
     }
 
     long mask() {
@@ -261,10 +508,6 @@ public final class Hand implements Iterable<Card> {
         return ranks;
     }
 
-    int count(Suit suit) {
-        return Integer.bitCount(slice(suit.ordinal(), cards));
-    }
-
     public int size() {
         return Long.bitCount(cards);
     }
@@ -284,13 +527,118 @@ public final class Hand implements Iterable<Card> {
         );
     }
 
+    /// The best five cards in this hand, in the order they're read: the cards that make the
+    /// category first, from the most significant rank down, then the kickers, and higher suits
+    /// before lower suits within a rank. A wheel is read with the ace last.
+    ///
+    /// @see #order()
     public Stream<Card> sort() {
-        if (Long.bitCount(cards) != 7) {
-            throw new IllegalArgumentException("partial hand");
+        int order = order();
+        return IntStream.range(0, 5).mapToObj(n -> Card.of(order >>> 6 * n & 0b111111));
+    }
+
+    /// Every suit of the lowest rank.
+    private static final long SUITS = 1L << offset(3)  // spades
+                                    | 1L << offset(2)  // hearts
+                                    | 1L << offset(1)  // diamonds
+                                    | 1L << offset(0); // clubs
+
+    /// The 13 low-order bits of a 16-bit block, one for each rank.
+    private static final int RANKS = (1 << 13) - 1;
+
+    /// The ranks of the wheel `[5,4,3,2,A]` other than the ace.
+    private static final int WHEEL = 0b1111;
+
+    /// The best five cards in this hand as a [mask][Card#mask()], computed directly from the
+    /// [value][#evaluate()] without sorting or allocating anything.
+    ///
+    /// The value names the ranks that make the hand and the ranks of its kickers, so for each of
+    /// those ranks, the right number of cards is taken from the highest suits, or from the
+    /// flush suit for flushes and straight flushes.
+    ///
+    /// @throws IllegalArgumentException if this hand has fewer than five or more than seven
+    ///         cards
+    public long best() {
+        int value = evaluatePartial();
+        if (value < 0) {
+            throw new IllegalArgumentException("fewer than five cards or more than seven");
         }
-        int value = evaluate();
+        int high = value >>> 13 & RANKS, low = value & RANKS;
+        return switch (Category.of(value)) {
+            case HIGH_CARD -> take(cards, low, 1);
+            case ONE_PAIR, TWO_PAIR -> take(cards, high, 2) | take(cards, low, 1);
+            case THREE_OF_A_KIND -> take(cards, high, 3) | take(cards, low, 1);
+            case STRAIGHT -> take(cards, straight(low), 1);
+            case FLUSH -> take(flush(), low, 1);
+            case FULL_HOUSE -> take(cards, high, 3) | take(cards, low, 2);
+            case FOUR_OF_A_KIND -> take(cards, high, 4) | take(cards, low, 1);
+            case STRAIGHT_FLUSH -> take(flush(), straight(low), 1);
+        };
+    }
+
+    /// The [best five cards][#best()] in the order they're read, encoded as their
+    /// [offsets][Card#offset()], six bits each, starting from the least significant bits.
+    ///
+    /// The ranks of the cards that make the category come first, from the most significant
+    /// down, then the ranks of the kickers; within a rank, higher suits come first. Straights
+    /// are read from the high card down, so the ace of a wheel comes last.
+    ///
+    /// @throws IllegalArgumentException if this hand has fewer than five or more than seven
+    ///         cards
+    /// @see #sort()
+    public int order() {
+        long best = best();
+        int value = evaluatePartial(), first = value >>> 13 & RANKS, second = value & RANKS;
         var category = Category.of(value);
-        return stream().sorted(category.order(this, value)).limit(5);
+        if (category == Category.STRAIGHT || category == Category.STRAIGHT_FLUSH) {
+            boolean wheel = second == 1 << 3; // five high
+            first = wheel ? WHEEL : straight(second);
+            second = wheel ? 1 << 12 : 0; // the ace plays low
+        }
+        int order = 0, shift = 0;
+        for (int group = 0; group < 2; group++) {
+            int ranks = group == 0 ? first : second;
+            while (ranks != 0) {
+                int rank = 31 - Integer.numberOfLeadingZeros(ranks);
+                ranks ^= 1 << rank;
+                for (long suits = best & SUITS << rank; suits != 0L; shift += 6) {
+                    long card = Long.highestOneBit(suits);
+                    suits ^= card;
+                    order |= Long.numberOfTrailingZeros(card) << shift;
+                }
+            }
+        }
+        return order;
+    }
+
+    /// Take the given number of cards from each of the given ranks among the given cards,
+    /// highest suits first.
+    private static long take(long cards, int ranks, int count) {
+        long taken = 0L;
+        for (; ranks != 0; ranks &= ranks - 1) {
+            long suits = cards & SUITS << Integer.numberOfTrailingZeros(ranks);
+            for (int n = 0; n < count; n++) {
+                long card = Long.highestOneBit(suits);
+                taken |= card;
+                suits ^= card;
+            }
+        }
+        return taken;
+    }
+
+    /// The five ranks of the straight with the given high rank.
+    private static int straight(int high) {
+        return high == 1 << 3 ? WHEEL | 1 << 12 : -(high >>> 4) & (high << 1) - 1;
+    }
+
+    /// The cards of the suit with at least five cards in this hand.
+    private long flush() {
+        for (int suit = 0; suit < 4; suit++) {
+            if (Integer.bitCount(slice(suit, cards) & RANKS) >= 5) {
+                return cards & (long) RANKS << offset(suit);
+            }
+        }
+        return 0L;
     }
 
     @Override
@@ -298,13 +646,14 @@ public final class Hand implements Iterable<Card> {
         return Card.string(this.stream());
     }
 
+    /// Binomial coefficients: `choose[k - 1][n]` is `n` choose `k`.
     private static int[][] choose() {
-        var choose = new int[7][52];
-        for (int n = 0; n < 52; n++) {
+        var choose = new int[7][53];
+        for (int n = 0; n < 53; n++) {
             choose[0][n] = n;
         }
         for (int k = 1; k < 7; k++) {
-            for (int n = k; n < 52; n++) {
+            for (int n = k; n < 53; n++) {
                 choose[k][n] = choose[k - 1][n - 1] + choose[k][n - 1];
             }
         }
@@ -313,14 +662,74 @@ public final class Hand implements Iterable<Card> {
 
     private static final int[][] choose = choose();
 
+    /// The number of distinct hands with the given number of cards, from 0 to 7.
+    ///
+    /// @see #rank()
+    public static int combinations(int size) {
+        checkSize(size);
+        return size == 0 ? 1 : choose[size - 1][52];
+    }
+
+    private static void checkSize(int size) {
+        if (size < 0 || size > 7) {
+            throw new IllegalArgumentException(
+                "size = %d (must be nonnegative and no greater than 7)".formatted(size)
+            );
+        }
+    }
+
+    /// The colexicographic rank of this hand among the hands with the same number of cards.
+    ///
+    /// Hands with `k` cards are numbered from 0 to [`(52 choose k) - 1`][#combinations(int)]
+    /// without gaps, so the rank of a hand can index a flat array in place of a map keyed by
+    /// hands. Numbering the 52 cards from 0 by suit and then by rank, the rank of a hand whose
+    /// cards are numbered `n1 < n2 < ... < nk` is `(n1 choose 1) + (n2 choose 2) + ... +
+    /// (nk choose k)` (the combinatorial number system).
+    ///
+    /// @throws IllegalArgumentException if this hand has more than seven cards
+    /// @see #unrank(int, int)
+    public int rank() {
+        checkSize(size());
+        return rank(cards);
+    }
+
+    /// The [rank][#rank()] of the hand with the given [cards][#cards], which must number no
+    /// more than seven.
+    static int rank(long cards) {
+        int rank = 0, k = 0;
+        for (; cards != 0L; cards &= cards - 1) {
+            rank += choose[k++][Card.ordinal(Long.numberOfTrailingZeros(cards))];
+        }
+        return rank;
+    }
+
+    /// The hand with the given number of cards and the given [rank][#rank()].
+    public static Hand unrank(int rank, int size) {
+        if (rank < 0 || rank >= combinations(size)) {
+            throw new IllegalArgumentException(
+                "rank = %d (must be nonnegative and less than %d)".formatted(
+                    rank,
+                    combinations(size)
+                )
+            );
+        }
+        long cards = 0L, ranks = 0L;
+        for (int k = size - 1, n = 51; k >= 0; k--, n--) {
+            while (choose[k][n] > rank) {
+                n--;
+            }
+            rank -= choose[k][n];
+            int ordinal = n % 13;
+            cards |= 1L << offset(n / 13) + ordinal;
+            ranks = add(ranks, ordinal);
+        }
+        return new Hand(cards, ranks);
+    }
+
+    /// The [rank][#rank()] of this hand, unless it has more than seven cards.
     @Override
     public int hashCode() {
-        int hash = 0, k = 0;
-        for (long cards = this.cards; cards != 0L; cards &= cards - 1) {
-            int n = Card.ordinal(Long.numberOfTrailingZeros(cards));
-            hash += choose[k++][n];
-        }
-        return hash;
+        return size() > 7 ? Long.hashCode(cards) : rank();
     }
 
     @Override
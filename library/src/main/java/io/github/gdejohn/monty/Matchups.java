@@ -0,0 +1,206 @@
+package io.github.gdejohn.monty;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/// The exact heads-up equity of every pair of hole cards against every other before the flop,
+/// loaded from a resource.
+///
+/// Matchups that differ only by a permutation of the suits have the same equity, and the equity
+/// of one side of a matchup is the complement of the other, so only the 47,008 canonical
+/// matchups are stored, each as a single-precision fraction averaged over all 1,712,304 boards
+/// (48 choose 5). The resource is generated once by enumerating every board,
+/// `java io.github.gdejohn.monty.Matchups <path>`.
+///
+/// Boards are enumerated up to a permutation of the suits too, which leaves 134,459 canonical
+/// boards out of 2,598,960, each weighted by the number of boards it stands for. On each board,
+/// every pair of hole cards is evaluated once and compared with every other, and the counts are
+/// averaged over the permutations of the suits at the end to undo the bias of the canonical
+/// boards. The boards are divided among fork/join tasks, each with its own counts.
+///
+/// @see Monty.Preflop#equity(Card, Card)
+final class Matchups {
+    /// The number of pairs of hole cards, indexed by [rank][Hand#rank()].
+    private static final int POCKETS = 1_326;
+
+    /// The number of boards for every matchup, (48 choose 5).
+    private static final int BOARDS = 1_712_304;
+
+    /// The number of boards counted by each fork/join task.
+    private static final int BLOCK = 1 << 13;
+
+    private static final String RESOURCE = "matchups.bin";
+
+    /// The rank of the pair of hole cards with each rank under each permutation of the suits.
+    private static final int[][] permutations = Arrays.stream(Card.permutations).map(
+        permutation -> IntStream.range(0, POCKETS).map(
+            rank -> Hand.rank(Card.permute(Hand.unrank(rank, 2).mask(), permutation))
+        ).toArray()
+    ).toArray(int[][]::new);
+
+    /// The canonical matchups, in ascending order, and their equities, loaded on first use.
+    private static final class Table {
+        private static final int[] keys;
+
+        private static final float[] equities;
+
+        static {
+            try (
+                var stream = Matchups.class.getResourceAsStream(RESOURCE);
+                var input = new DataInputStream(new BufferedInputStream(stream))
+            ) {
+                int count = input.readInt();
+                keys = new int[count];
+                equities = new float[count];
+                for (int n = 0; n < count; n++) {
+                    keys[n] = input.readInt();
+                    equities[n] = input.readFloat();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private Matchups() {}
+
+    /// The least key among the suit permutations of the given matchup, which is the same for
+    /// every matchup with the same equity.
+    private static int canonical(int pocket, int opponent) {
+        int canonical = Integer.MAX_VALUE;
+        for (int[] permutation : permutations) {
+            int key = permutation[pocket] * POCKETS + permutation[opponent];
+            canonical = Math.min(canonical, key);
+        }
+        return canonical;
+    }
+
+    /// The exact equity of the given hole cards against the given opponent's hole cards, which
+    /// must be disjoint.
+    static double equity(long pocket, long opponent) {
+        int key = canonical(Hand.rank(pocket), Hand.rank(opponent));
+        int swapped = canonical(Hand.rank(opponent), Hand.rank(pocket));
+        return key <= swapped
+            ? Table.equities[Arrays.binarySearch(Table.keys, key)]
+            : 1 - Table.equities[Arrays.binarySearch(Table.keys, swapped)];
+    }
+
+    /// Enumerate every board and write the equity of every canonical matchup to the file given
+    /// as the first argument.
+    public static void main(String[] args) throws IOException {
+        long start = System.nanoTime();
+        int count = write(Path.of(args[0]));
+        System.out.printf("%d matchups in %.1f s%n", count, (System.nanoTime() - start) / 1e9);
+    }
+
+    /// Enumerate every board, and write the equity of every canonical matchup to the given file.
+    ///
+    /// @return the number of canonical matchups
+    static int write(Path path) throws IOException {
+        int[] boards = IntStream.range(0, Hand.combinations(5)).filter(rank -> {
+            long board = Hand.unrank(rank, 5).mask();
+            return Arrays.stream(Card.permutations).allMatch(
+                permutation -> Card.permute(board, permutation) >= board
+            );
+        }).toArray();
+        int[] wins = new Sweep(boards, 0, boards.length).invoke();
+        int[] keys = IntStream.range(0, POCKETS * POCKETS).filter(key -> {
+            int pocket = key / POCKETS, opponent = key % POCKETS;
+            return (Hand.unrank(pocket, 2).mask() & Hand.unrank(opponent, 2).mask()) == 0L
+                && key == canonical(pocket, opponent)
+                && key <= canonical(opponent, pocket); // the other side is the complement
+        }).toArray();
+        var file = new BufferedOutputStream(Files.newOutputStream(path));
+        try (var output = new DataOutputStream(file)) {
+            output.writeInt(keys.length);
+            for (int key : keys) {
+                int pocket = key / POCKETS, opponent = key % POCKETS;
+                long total = 0;
+                for (int[] permutation : permutations) {
+                    total += wins[permutation[pocket] * POCKETS + permutation[opponent]];
+                }
+                output.writeInt(key);
+                output.writeFloat((float) (total / (2d * BOARDS * permutations.length)));
+            }
+            return keys.length;
+        }
+    }
+
+    /// A fork/join task that counts, for every pair of hole cards against every other, the half
+    /// pots won on a range of canonical boards, weighted by the number of boards that each one
+    /// stands for.
+    private static final class Sweep extends RecursiveTask<int[]> {
+        private final int[] boards;
+
+        private final int from;
+
+        private final int to;
+
+        private Sweep(int[] boards, int from, int to) {
+            this.boards = boards;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from > BLOCK) {
+                int middle = (from + to) >>> 1;
+                var left = new Sweep(boards, from, middle);
+                left.fork();
+                int[] wins = new Sweep(boards, middle, to).compute();
+                int[] other = left.join();
+                for (int n = 0; n < wins.length; n++) {
+                    wins[n] += other[n];
+                }
+                return wins;
+            }
+            var pockets = new long[POCKETS];
+            var lows = new Card[POCKETS];
+            var highs = new Card[POCKETS];
+            for (int rank = 0; rank < POCKETS; rank++) {
+                pockets[rank] = Hand.unrank(rank, 2).mask();
+                lows[rank] = Card.of(Long.numberOfTrailingZeros(pockets[rank]));
+                highs[rank] = Card.of(63 - Long.numberOfLeadingZeros(pockets[rank]));
+            }
+            var wins = new int[POCKETS * POCKETS];
+            var values = new int[POCKETS];
+            for (int n = from; n < to; n++) {
+                var board = Hand.unrank(boards[n], 5);
+                long dealt = board.mask();
+                int symmetries = 0; // the permutations that leave this board unchanged
+                for (int[] permutation : Card.permutations) {
+                    symmetries += Card.permute(dealt, permutation) == dealt ? 1 : 0;
+                }
+                int weight = Card.permutations.length / symmetries;
+                for (int rank = 0; rank < POCKETS; rank++) {
+                    values[rank] = (pockets[rank] & dealt) != 0L
+                        ? Integer.MAX_VALUE // neither beats nor ties any hand on this board
+                        : board.add(lows[rank]).add(highs[rank]).evaluate();
+                }
+                for (int pocket = 0; pocket < POCKETS; pocket++) {
+                    int value = values[pocket];
+                    if (value != Integer.MAX_VALUE) {
+                        int row = pocket * POCKETS;
+                        for (int opponent = 0; opponent < POCKETS; opponent++) {
+                            int difference = values[opponent] - value; // branch free, vectorized
+                            wins[row + opponent] += weight * (
+                                (difference >>> 31) + (difference - 1 >>> 31)
+                            );
+                        }
+                    }
+                }
+            }
+            return wins;
+        }
+    }
+}
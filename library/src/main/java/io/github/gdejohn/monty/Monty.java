@@ -2,9 +2,15 @@ package io.github.gdejohn.monty;
 
 import io.github.gdejohn.monty.Deck.Generator;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
 import java.util.random.RandomGenerator.SplittableGenerator;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -30,14 +36,66 @@ public sealed abstract class Monty {
     /// The source of random numbers to use for the simulation.
     private final SplittableGenerator rng;
 
+    /// The variant of Texas hold 'em being played.
+    private final Variant variant;
+
+    /// The variants of Texas hold 'em.
+    private enum Variant {
+        /// Ordinary Texas hold 'em, with a 52-card deck.
+        STANDARD,
+
+        /// Short-deck hold 'em, with a 36-card deck.
+        ///
+        /// @see Hand#evaluateShortDeck()
+        SHORT_DECK,
+
+        /// Texas hold 'em hi-lo, eight or better, with the pot split between the high hand and the
+        /// low hand.
+        ///
+        /// @see Hand#evaluateEightOrBetter()
+        HI_LO
+    }
+
+    /// The twos, threes, fours, and fives, which are not in a short deck.
+    private static final long LOW = 0b1111L << Card.offset(3)  // spades
+                                  | 0b1111L << Card.offset(2)  // hearts
+                                  | 0b1111L << Card.offset(1)  // diamonds
+                                  | 0b1111L << Card.offset(0); // clubs
+
+    /// The number of trials run by each fork/join task in [#limit(long)].
+    private static final int BLOCK = 1 << 12;
+
+    /// The number of trials between checks of the deadline in [#within(Duration)].
+    private static final int CHUNK = 1 << 6;
+
+    /// The number of trials for each card in [Flop#outs()] and [Turn#outs()] when the equity
+    /// can't be solved exactly.
+    private static final long OUTS = 1 << 16;
+
     private static long mask(Hand partial, Card[] pocket) {
         return partial.mask() | pocket[0].mask() | pocket[1].mask();
     }
 
-    private Monty(SplittableGenerator rng, Card[] pocket, Hand partial, int board, int players) {
-        if (players < 2 || players > 23) {
+    private Monty(
+        SplittableGenerator rng,
+        Card[] pocket,
+        Hand partial,
+        int board,
+        int players,
+        Variant variant
+    ) {
+        boolean shortDeck = variant == Variant.SHORT_DECK;
+        int max = shortDeck ? 15 : 23; // enough cards for every player and the board
+        if (players < 2 || players > max) {
+            throw new IllegalArgumentException(
+                "players = %d (must be greater than 1 and less than %d)".formatted(players, max + 1)
+            );
+        } else if (shortDeck && (mask(partial, pocket) & LOW) != 0L) {
             throw new IllegalArgumentException(
-                "players = %d (must be greater than 1 and less than 24)".formatted(players)
+                "board = %s, pocket = %s (must be six or higher for short deck)".formatted(
+                    Card.string(partial.stream()),
+                    Card.string(Arrays.stream(pocket))
+                )
             );
         } else if (Long.bitCount(mask(partial, pocket)) != board + 2) {
             throw new IllegalArgumentException(
@@ -52,18 +110,23 @@ public sealed abstract class Monty {
         this.partial = partial;
         this.board = board;
         this.players = players;
+        this.variant = variant;
     }
 
     private Monty(Monty monty, Hand partial, int board) {
-        this(monty.rng, monty.pocket, partial, board, monty.players);
+        this(monty.rng, monty.pocket, partial, board, monty.players, monty.variant);
     }
 
     private Monty(Monty monty, int players, int board) {
-        this(monty.rng, monty.pocket, monty.partial, board, players);
+        this(monty.rng, monty.pocket, monty.partial, board, players, monty.variant);
     }
 
     private Monty(Monty monty, SplittableGenerator rng, int board) {
-        this(rng, monty.pocket, monty.partial, board, monty.players);
+        this(rng, monty.pocket, monty.partial, board, monty.players, monty.variant);
+    }
+
+    private Monty(Monty monty, Variant variant, int board) {
+        this(monty.rng, monty.pocket, monty.partial, board, monty.players, variant);
     }
 
     /// Specify the hero's two hole cards.
@@ -85,7 +148,11 @@ public sealed abstract class Monty {
     /// No community cards on the board.
     public static final class Preflop extends Monty {
         private Preflop(Card... pocket) {
-            super(null, pocket, Hand.empty(), 0, 2);
+            super(null, pocket, Hand.empty(), 0, 2, Variant.STANDARD);
+        }
+
+        private Preflop(Preflop preflop, Variant variant) {
+            super(preflop, variant, 0);
         }
 
         private Preflop(Preflop preflop, SplittableGenerator rng) {
@@ -101,6 +168,85 @@ public sealed abstract class Monty {
             return new Flop(this, super.partial.add(first).add(second).add(third));
         }
 
+        /// Play short-deck hold 'em, without the twos, threes, fours, or fives.
+        ///
+        /// @see Hand#evaluateShortDeck()
+        public Preflop shortDeck() {
+            return new Preflop(this, Variant.SHORT_DECK);
+        }
+
+        /// Play Texas hold 'em hi-lo, eight or better, instead of high only.
+        ///
+        /// The pot is split evenly between the best high hand and the best qualifying low hand, if
+        /// any, with ties splitting each half further.
+        ///
+        /// @see Hand#evaluateEightOrBetter()
+        /// @see Showdown#scoops()
+        public Preflop hiLo() {
+            return new Preflop(this, Variant.HI_LO);
+        }
+
+        /// Play the game with the given name: `holdem` for Texas hold 'em, `short-deck` for
+        /// [short-deck][#shortDeck()] hold 'em, or `hi-lo` for [hi-lo][#hiLo()].
+        public Preflop game(String name) {
+            return switch (name) {
+                case "holdem" -> this;
+                case "short-deck" -> shortDeck();
+                case "hi-lo" -> hiLo();
+                default -> throw new IllegalArgumentException(
+                    "game = %s (must be holdem, short-deck, or hi-lo)".formatted(name)
+                );
+            };
+        }
+
+        /// Specify every community card on the board so far: none, the flop, the flop and the
+        /// turn, or the whole board.
+        public Monty board(List<Card> board) {
+            return switch (board.size()) {
+                case 0 -> this;
+                case 3 -> flop(board.get(0), board.get(1), board.get(2));
+                case 4 -> flop(board.get(0), board.get(1), board.get(2)).turn(board.get(3));
+                case 5 -> flop(board.get(0), board.get(1), board.get(2)).turn(board.get(3)).river(
+                    board.get(4)
+                );
+                default -> throw new IllegalArgumentException(
+                    "board = %s (must be zero, three, four, or five cards)".formatted(
+                        Card.string(board.stream())
+                    )
+                );
+            };
+        }
+
+        /// Look up the exact equity against the given opponent's hole cards, heads-up, instead of
+        /// estimating it.
+        ///
+        /// Every board is accounted for, so there is no sampling error, and the equity is
+        /// accurate to single precision.
+        ///
+        /// @throws IllegalArgumentException unless there are two players playing ordinary Texas
+        ///         hold 'em, or if any of the four hole cards are the same
+        public double equity(Card first, Card second) {
+            if (super.players != 2 || super.variant != Variant.STANDARD) {
+                throw new IllegalArgumentException(
+                    "players = %d, variant = %s (must be heads-up standard hold 'em)".formatted(
+                        super.players,
+                        super.variant
+                    )
+                );
+            }
+            long pocket = super.pocket[0].mask() | super.pocket[1].mask();
+            long opponent = first.mask() | second.mask();
+            if (Long.bitCount(pocket | opponent) != 4) {
+                throw new IllegalArgumentException(
+                    "pocket = %s, opponent = %s (must be disjoint)".formatted(
+                        Card.string(Arrays.stream(super.pocket)),
+                        Card.string(Stream.of(first, second))
+                    )
+                );
+            }
+            return Matchups.equity(pocket, opponent);
+        }
+
         @Override
         public Preflop players(int players) {
             return new Preflop(this, players);
@@ -131,6 +277,59 @@ public sealed abstract class Monty {
             return new Turn(this, super.partial.add(fourth));
         }
 
+        /// Look up the exact equity against one random hand in the given database, instead of
+        /// estimating it.
+        ///
+        /// The database stores equities as 16-bit fixed-point fractions, so the result is exact
+        /// only to within 2^-16, the rounding error of the fixed-point representation.
+        ///
+        /// @throws IllegalArgumentException unless there are two players playing ordinary Texas
+        ///         hold 'em, or if the flop is missing from the database
+        /// @see FlopDatabase
+        public double equity(FlopDatabase database) {
+            if (super.players != 2 || super.variant != Variant.STANDARD) {
+                throw new IllegalArgumentException(
+                    "players = %d, variant = %s (must be heads-up standard hold 'em)".formatted(
+                        super.players,
+                        super.variant
+                    )
+                );
+            }
+            return database.equity(
+                super.partial.mask(),
+                super.pocket[0].mask() | super.pocket[1].mask()
+            );
+        }
+
+        /// Deal every unseen card as the turn, and determine the category of the hero's hand and
+        /// the hero's equity against the configured opponents for each one.
+        ///
+        /// Heads-up, the equity is exact, averaged over every river and every opponent's hole
+        /// cards. With more players, or in [hi-lo][Preflop#hiLo()] games, it is estimated from
+        /// 2^16 trials per card.
+        ///
+        /// @see #outs(long)
+        public List<Out> outs() {
+            return super.next();
+        }
+
+        /// Deal every unseen card as the turn, and estimate the hero's equity for each one from
+        /// the given number of trials, even heads-up.
+        ///
+        /// @throws IllegalArgumentException if the number of trials isn't positive
+        public List<Out> outs(long trials) {
+            return super.next(trials);
+        }
+
+        /// Run a given number of trials in parallel, and summarize the results separately for
+        /// every possible turn card as well as overall, in one simulation.
+        ///
+        /// Once the turn is dealt, [Breakdown#given(Card)] answers for it without simulating
+        /// anything further.
+        public Breakdown breakdown(long trials) {
+            return super.breakdown(trials);
+        }
+
         @Override
         public Flop players(int players) {
             return new Flop(this, players);
@@ -161,6 +360,31 @@ public sealed abstract class Monty {
             return new River(this, super.partial.add(fifth));
         }
 
+        /// Deal every unseen card as the river, and determine the category of the hero's hand and
+        /// the hero's equity against the configured opponents for each one.
+        ///
+        /// Heads-up, the equity is exact, against every opponent's hole cards. With more players,
+        /// or in [hi-lo][Preflop#hiLo()] games, it is estimated from 2^16 trials per card.
+        ///
+        /// @see #outs(long)
+        public List<Out> outs() {
+            return super.next();
+        }
+
+        /// Deal every unseen card as the river, and estimate the hero's equity for each one from
+        /// the given number of trials, even heads-up.
+        ///
+        /// @throws IllegalArgumentException if the number of trials isn't positive
+        public List<Out> outs(long trials) {
+            return super.next(trials);
+        }
+
+        /// Run a given number of trials in parallel, and summarize the results separately for
+        /// every possible river card as well as overall, in one simulation.
+        public Breakdown breakdown(long trials) {
+            return super.breakdown(trials);
+        }
+
         @Override
         public Turn players(int players) {
             return new Turn(this, players);
@@ -186,6 +410,57 @@ public sealed abstract class Monty {
             super(river, rng, 5);
         }
 
+        /// The hero's exact heads-up equity against every possible pair of hole cards, each
+        /// equally likely.
+        ///
+        /// @throws IllegalArgumentException unless there are two players, or if the game is
+        ///         [hi-lo][Preflop#hiLo()]
+        /// @see #equities(double[])
+        public double equity() {
+            var range = new double[Hand.combinations(2)];
+            Arrays.fill(range, 1);
+            return equity(range);
+        }
+
+        /// The hero's exact heads-up equity against the given range of hole cards.
+        ///
+        /// The range is a weight for every pair of hole cards, indexed by its
+        /// [rank][Hand#rank()]. Weights on hole cards that conflict with the board or the
+        /// hero's hole cards are ignored.
+        ///
+        /// @throws IllegalArgumentException unless there are two players, if the game is
+        ///         [hi-lo][Preflop#hiLo()], if any weight is negative or not finite, or if
+        ///         every weight on hole cards that don't conflict is zero
+        /// @see #equities(double[])
+        public double equity(double[] range) {
+            var pocket = super.pocket;
+            double equity = equities(range)[Hand.rank(pocket[0].mask() | pocket[1].mask())];
+            if (Double.isNaN(equity)) {
+                throw new IllegalArgumentException(
+                    "range (must have weight on hole cards disjoint from %s)".formatted(
+                        Card.string(Stream.concat(super.partial.stream(), Arrays.stream(pocket)))
+                    )
+                );
+            }
+            return equity;
+        }
+
+        /// The exact equity of every pair of hole cards against the given range on this board,
+        /// indexed by [rank][Hand#rank()], not just the hero's.
+        ///
+        /// Every pair of hole cards that doesn't conflict with the board, at most 1,081 of them
+        /// (47 choose 2), is evaluated once and sorted by value. Then a single sweep from the
+        /// weakest hand up counts the weight of the range beaten by and tied with each one,
+        /// keeping running totals by card so that hands sharing a card can be subtracted out.
+        /// The equity of hole cards that conflict with the board, or that conflict with every
+        /// hand in the range, is `NaN`.
+        ///
+        /// @throws IllegalArgumentException unless there are two players, if the game is
+        ///         [hi-lo][Preflop#hiLo()], or if any weight is negative or not finite
+        public double[] equities(double[] range) {
+            return super.sweep(range);
+        }
+
         @Override
         public River players(int players) {
             return new River(this, players);
@@ -197,14 +472,495 @@ public sealed abstract class Monty {
         }
     }
 
+    /// A possible next community card, with the category of the hero's best hand and the hero's
+    /// equity once that card is dealt.
+    ///
+    /// The error is the [standard error][Showdown#error()] of an estimated equity, or zero if the
+    /// equity is exact.
+    ///
+    /// @see Flop#outs()
+    /// @see Turn#outs()
+    public record Out(Card card, Category category, double equity, double error) {}
+
+    /// Deal every unseen card as the next community card, and solve the heads-up equity exactly
+    /// for each one, or estimate it if the game isn't heads-up and high only.
+    ///
+    /// The partial hand is extended once per card, and the cards are processed in parallel.
+    private List<Out> next() {
+        if (players != 2 || variant == Variant.HI_LO) {
+            return next(OUTS);
+        }
+        Card[] unseen = unseen().toArray(Card[]::new);
+        return Arrays.stream(unseen).parallel().map(card -> {
+            Hand board = partial.add(card);
+            return new Out(card, category(board), equity(board, unseen), 0);
+        }).toList();
+    }
+
+    /// Deal every unseen card as the next community card, and estimate the equity for each one
+    /// with [#limit(long)].
+    ///
+    /// Each card gets its own random number generator, split from this game's in the order of
+    /// the cards before any trials run, so a given generator gives the same results no matter
+    /// how the cards are processed in parallel.
+    private List<Out> next(long trials) {
+        if (trials < 1) {
+            throw new IllegalArgumentException(
+                "trials = %d (must be positive)".formatted(trials)
+            );
+        }
+        record Game(Card card, Monty monty) {}
+        var games = unseen().map(card -> {
+            Monty monty = switch (this) {
+                case Flop flop -> flop.turn(card);
+                case Turn turn -> turn.river(card);
+                default -> throw new AssertionError(this);
+            };
+            return new Game(card, rng == null ? monty : monty.rng(rng.split()));
+        }).toList();
+        return games.parallelStream().map(game -> {
+            var showdown = game.monty().limit(trials);
+            return new Out(
+                game.card(),
+                category(game.monty().partial),
+                showdown.equity(),
+                showdown.error()
+            );
+        }).toList();
+    }
+
+    /// The category of the hero's best hand with the given board.
+    private Category category(Hand board) {
+        Hand hand = board.add(pocket[0]).add(pocket[1]);
+        return variant == Variant.SHORT_DECK ? hand.categoryShortDeck() : hand.category();
+    }
+
+    private void checkHeadsUp() {
+        if (players != 2 || variant == Variant.HI_LO) {
+            throw new IllegalArgumentException(
+                "players = %d, variant = %s (must be heads-up and high only)".formatted(
+                    players,
+                    variant
+                )
+            );
+        }
+    }
+
+    /// The exact heads-up equity on the given board, averaged over every way of dealing the rest
+    /// of the board and then the opponent's hole cards from the given cards that aren't on it.
+    ///
+    /// Every runout leaves the same number of hole cards for the opponent, so the equity is the
+    /// plain average of the equities of the runouts.
+    private double equity(Hand board, Card[] cards) {
+        long dealt = board.mask();
+        if (board.size() < 5) {
+            double equity = 0;
+            int runouts = 0;
+            for (var card : cards) {
+                if (!card.in(dealt)) {
+                    equity += equity(board.add(card), cards);
+                    runouts++;
+                }
+            }
+            return equity / runouts;
+        }
+        int player = evaluate(board.add(pocket[0]).add(pocket[1]));
+        long halves = 0, opponents = 0; // half pots won out of every opponent's hole cards
+        for (int first = 0; first < cards.length; first++) {
+            if (cards[first].in(dealt)) {
+                continue;
+            }
+            Hand hand = board.add(cards[first]);
+            for (int second = first + 1; second < cards.length; second++) {
+                if (!cards[second].in(dealt)) {
+                    halves += signum(player - evaluate(hand.add(cards[second]))) + 1;
+                    opponents++;
+                }
+            }
+        }
+        return halves / (2d * opponents);
+    }
+
+    /// The exact equity of every pair of hole cards against the given range on the river.
+    ///
+    /// @see River#equities(double[])
+    private double[] sweep(double[] range) {
+        checkHeadsUp();
+        if (range.length != Hand.combinations(2)) {
+            throw new IllegalArgumentException(
+                "range.length = %d (must be %d)".formatted(range.length, Hand.combinations(2))
+            );
+        }
+        for (double weight : range) {
+            if (!(weight >= 0 && weight < Double.POSITIVE_INFINITY)) {
+                throw new IllegalArgumentException(
+                    "weight = %s (must be nonnegative and finite)".formatted(weight)
+                );
+            }
+        }
+        long dealt = partial.mask();
+        boolean shortDeck = variant == Variant.SHORT_DECK;
+        // every pair of hole cards that doesn't conflict with the board, sorted by value, with
+        // the rank of each pair packed into the low bits
+        var hands = new long[Hand.combinations(2)];
+        int count = 0;
+        for (int rank = 0; rank < hands.length; rank++) {
+            long cards = Hand.unrank(rank, 2).mask();
+            if ((cards & dealt) == 0L && !(shortDeck && (cards & LOW) != 0L)) {
+                var hand = partial.add(Card.of(Long.numberOfTrailingZeros(cards)))
+                                  .add(Card.of(63 - Long.numberOfLeadingZeros(cards)));
+                hands[count++] = (long) evaluate(hand) << 11 | rank;
+            }
+        }
+        Arrays.sort(hands, 0, count);
+        var ranks = new int[count];
+        var lows = new int[count]; // the offset of the lower card of each pair
+        var highs = new int[count];
+        double total = 0;
+        var totals = new double[64]; // the weight of the hands containing each card
+        for (int n = 0; n < count; n++) {
+            ranks[n] = (int) hands[n] & 0x7FF;
+            long cards = Hand.unrank(ranks[n], 2).mask();
+            lows[n] = Long.numberOfTrailingZeros(cards);
+            highs[n] = 63 - Long.numberOfLeadingZeros(cards);
+            double weight = range[ranks[n]];
+            total += weight;
+            totals[lows[n]] += weight;
+            totals[highs[n]] += weight;
+        }
+        var equities = new double[hands.length];
+        Arrays.fill(equities, Double.NaN);
+        double below = 0;
+        var belows = new double[64]; // the weight of the weaker hands containing each card
+        var ties = new double[64]; // the weight of the equal hands containing each card
+        for (int start = 0, end; start < count; start = end) {
+            double tie = 0;
+            for (end = start; end < count && hands[end] >>> 11 == hands[start] >>> 11; end++) {
+                double weight = range[ranks[end]];
+                tie += weight;
+                ties[lows[end]] += weight;
+                ties[highs[end]] += weight;
+            }
+            for (int n = start; n < end; n++) {
+                // subtracting the hands that share either card subtracts this hand twice
+                double weight = range[ranks[n]];
+                double wins = below - belows[lows[n]] - belows[highs[n]];
+                double splits = tie - ties[lows[n]] - ties[highs[n]] + weight;
+                double opponents = total - totals[lows[n]] - totals[highs[n]] + weight;
+                if (opponents > 0) {
+                    equities[ranks[n]] = (wins + splits / 2) / opponents;
+                }
+            }
+            for (int n = start; n < end; n++) {
+                double weight = range[ranks[n]];
+                belows[lows[n]] += weight;
+                belows[highs[n]] += weight;
+                ties[lows[n]] = 0;
+                ties[highs[n]] = 0;
+            }
+            below += tie;
+        }
+        return equities;
+    }
+
     /// Run a given number of trials in parallel and summarize the results.
     ///
+    /// The trials are divided into fixed-size blocks, which run as fork/join tasks in the current
+    /// pool, or the common pool if the caller isn't already running in one. Each block counts
+    /// its outcomes with its own deck in a tight loop, and the counts are merged once per block.
+    /// The decks are split from one another in a fixed order, so a given random number generator
+    /// gives the same results no matter how many threads run the blocks.
+    ///
     /// @see #stream()
     public Showdown limit(long trials) {
-        return stream().limit(trials).collect(
-            () -> new Showdown(players),
-            Showdown::accumulate,
-            Showdown::combine
+        if (trials < 0) {
+            throw new IllegalArgumentException(
+                "trials = %d (must be nonnegative)".formatted(trials)
+            );
+        }
+        return new Trials(deck(), trials).invoke();
+    }
+
+    /// A fork/join task that runs a given number of trials.
+    private final class Trials extends RecursiveTask<Showdown> {
+        private final Deck deck;
+
+        private final long trials;
+
+        private Trials(Deck deck, long trials) {
+            this.deck = deck;
+            this.trials = trials;
+        }
+
+        @Override
+        protected Showdown compute() {
+            if (trials <= BLOCK) {
+                var showdown = showdown();
+                long[] outcomes = showdown.outcomes();
+                var simulation = simulation(deck, trials);
+                for (long trial = 0; trial < trials; trial++) {
+                    outcomes[simulation.trial()]++;
+                }
+                return showdown;
+            }
+            long half = (trials + BLOCK - 1) / BLOCK / 2 * BLOCK; // whole blocks on the left
+            var left = new Trials(deck.split(), half);
+            left.fork();
+            var showdown = new Trials(deck, trials - half).compute();
+            showdown.combine(left.join());
+            return showdown;
+        }
+    }
+
+    /// Run a given number of trials in parallel exactly like [#limit(long)], but also count the
+    /// outcomes of each trial in a bucket for the first community card it dealt.
+    private Breakdown breakdown(long trials) {
+        if (trials < 0) {
+            throw new IllegalArgumentException(
+                "trials = %d (must be nonnegative)".formatted(trials)
+            );
+        }
+        return new Breakdown(new Buckets(deck(), trials).invoke());
+    }
+
+    /// A fork/join task that runs a given number of trials, and counts their outcomes in buckets
+    /// indexed by the [offset][Card#offset()] of the next community card.
+    ///
+    /// The blocks are split and their decks are dealt in the same order as [Trials], so the
+    /// buckets add up to the same results as [#limit(long)].
+    private final class Buckets extends RecursiveTask<Showdown[]> {
+        private final Deck deck;
+
+        private final long trials;
+
+        private Buckets(Deck deck, long trials) {
+            this.deck = deck;
+            this.trials = trials;
+        }
+
+        @Override
+        protected Showdown[] compute() {
+            if (trials <= BLOCK) {
+                var showdowns = new Showdown[Long.SIZE];
+                unseen().forEach(card -> showdowns[card.offset()] = showdown());
+                var simulation = simulation(deck, trials);
+                for (long trial = 0; trial < trials; trial++) {
+                    int outcome = simulation.trial();
+                    showdowns[deck.first().offset()].outcomes()[outcome]++;
+                }
+                return showdowns;
+            }
+            long half = (trials + BLOCK - 1) / BLOCK / 2 * BLOCK; // whole blocks on the left
+            var left = new Buckets(deck.split(), half);
+            left.fork();
+            var showdowns = new Buckets(deck, trials - half).compute();
+            var other = left.join();
+            for (int offset = 0; offset < showdowns.length; offset++) {
+                if (showdowns[offset] != null) {
+                    showdowns[offset].combine(other[offset]);
+                }
+            }
+            return showdowns;
+        }
+    }
+
+    /// The results of a simulation, both overall and conditioned on the next community card.
+    ///
+    /// @see Flop#breakdown(long)
+    /// @see Turn#breakdown(long)
+    public static final class Breakdown {
+        /// The results for each possible next card, indexed by its [offset][Card#offset()], or
+        /// null for cards that have already been dealt.
+        private final Showdown[] showdowns;
+
+        /// The results across every next card.
+        private final Showdown marginal;
+
+        private Breakdown(Showdown[] showdowns) {
+            this.showdowns = showdowns;
+            Showdown marginal = null;
+            for (var showdown : showdowns) {
+                if (showdown == null) {
+                    continue;
+                } else if (marginal == null) {
+                    marginal = showdown.copy();
+                } else {
+                    marginal.combine(showdown);
+                }
+            }
+            this.marginal = marginal;
+        }
+
+        /// The results across every trial, regardless of the next card.
+        public Showdown marginal() {
+            return marginal;
+        }
+
+        /// The results of the trials in which the given card was dealt next, which estimate the
+        /// results of the game with that card on the board, along with their own
+        /// [error][Showdown#error()].
+        ///
+        /// @throws IllegalArgumentException if the given card was already dealt
+        public Showdown given(Card card) {
+            var showdown = showdowns[card.offset()];
+            if (showdown == null) {
+                throw new IllegalArgumentException(
+                    "card = %s (must not have been dealt)".formatted(card)
+                );
+            }
+            return showdown;
+        }
+    }
+
+    /// Run a given number of trials in parallel like [#limit(long)], and summarize the results
+    /// for every number of players from two up to the number of players in this game, as if each
+    /// had been simulated on its own.
+    ///
+    /// Each trial deals the opponents' hole cards one at a time, and the first `n - 1` opponents
+    /// dealt decide the outcome with `n` players, so every number of players is counted in every
+    /// trial. After the hero loses to an opponent, no more opponents are dealt, since the hero
+    /// would lose with any more players, too, so the whole curve costs about as much as
+    /// simulating the most players alone. Each summary is distributed exactly like the results
+    /// of a separate simulation, and the summary for the most players is identical to
+    /// [#limit(long)] with the same random number generator, but the summaries come from the
+    /// same trials, so their errors are correlated.
+    ///
+    /// @return the results for each number of players in ascending order, starting with
+    ///         heads-up
+    public List<Showdown> curve(long trials) {
+        if (trials < 0) {
+            throw new IllegalArgumentException(
+                "trials = %d (must be nonnegative)".formatted(trials)
+            );
+        }
+        var showdowns = new Curves(deck(), trials).invoke();
+        return Arrays.asList(showdowns).subList(2, showdowns.length);
+    }
+
+    /// A fork/join task that runs a given number of trials, and counts their outcomes for every
+    /// number of players in showdowns indexed by the number of players.
+    ///
+    /// The blocks are split and their decks are dealt in the same order as [Trials].
+    private final class Curves extends RecursiveTask<Showdown[]> {
+        private final Deck deck;
+
+        private final long trials;
+
+        private Curves(Deck deck, long trials) {
+            this.deck = deck;
+            this.trials = trials;
+        }
+
+        @Override
+        protected Showdown[] compute() {
+            if (trials <= BLOCK) {
+                var showdowns = new Showdown[players + 1];
+                var outcomes = new long[players + 1][];
+                for (int n = 2; n <= players; n++) {
+                    showdowns[n] = showdown(n);
+                    outcomes[n] = showdowns[n].outcomes();
+                }
+                var losses = new long[players + 1];
+                var simulation = simulation(deck, trials);
+                for (long trial = 0; trial < trials; trial++) {
+                    simulation.curve(outcomes, losses);
+                }
+                long lost = 0;
+                for (int n = 2; n <= players; n++) {
+                    lost += losses[n]; // a loss with fewer players is a loss with n players
+                    outcomes[n][0] += lost;
+                }
+                return showdowns;
+            }
+            long half = (trials + BLOCK - 1) / BLOCK / 2 * BLOCK; // whole blocks on the left
+            var left = new Curves(deck.split(), half);
+            left.fork();
+            var showdowns = new Curves(deck, trials - half).compute();
+            var other = left.join();
+            for (int n = 2; n < showdowns.length; n++) {
+                showdowns[n].combine(other[n]);
+            }
+            return showdowns;
+        }
+    }
+
+    /// Run trials in parallel until the given amount of time has passed, and summarize the
+    /// results so far.
+    ///
+    /// Every thread available to the simulation runs trials in small chunks, checking the
+    /// deadline between chunks, so the deadline is overshot by no more than the time it takes to
+    /// run one chunk, typically tens of microseconds. Each thread runs at least one chunk, even
+    /// if the deadline has already passed.
+    ///
+    /// @see Showdown#trials()
+    /// @see Showdown#error()
+    public Showdown within(Duration duration) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException(
+                "duration = %s (must be nonnegative)".formatted(duration)
+            );
+        }
+        long deadline = System.nanoTime() + duration.toNanos();
+        int workers = Thread.currentThread() instanceof ForkJoinWorkerThread worker
+            ? worker.getPool().getParallelism()
+            : ForkJoinPool.getCommonPoolParallelism() + 1; // the caller helps, too
+        return Stream.iterate(deck(), Deck::split).limit(workers).toList().parallelStream().map(
+            deck -> {
+                var showdown = showdown();
+                long[] outcomes = showdown.outcomes();
+                var simulation = simulation(deck);
+                do {
+                    for (int trial = 0; trial < CHUNK; trial++) {
+                        outcomes[simulation.trial()]++;
+                    }
+                } while (System.nanoTime() - deadline < 0);
+                return showdown;
+            }
+        ).reduce((left, right) -> {
+            left.combine(right);
+            return left;
+        }).orElseThrow();
+    }
+
+    /// Run a given number of trials, reusing and topping up the results already stored for the
+    /// same spot.
+    ///
+    /// If the store already holds at least the given number of trials for this spot, then those
+    /// results are returned without simulating anything. Otherwise, only the missing trials are
+    /// simulated and merged into the store, so that later queries for the same spot get more
+    /// precise for free. Hi-lo results are never stored.
+    ///
+    /// @see EquityStore
+    public Showdown limit(long trials, EquityStore store) {
+        if (trials < 0) {
+            throw new IllegalArgumentException(
+                "trials = %d (must be nonnegative)".formatted(trials)
+            );
+        } else if (variant == Variant.HI_LO) {
+            return limit(trials);
+        }
+        var spot = spot();
+        var stored = showdown();
+        store.get(spot, stored);
+        long missing = trials - stored.trials();
+        if (missing <= 0) {
+            return stored;
+        }
+        var showdown = limit(missing);
+        store.add(spot, showdown);
+        showdown.combine(stored);
+        return showdown;
+    }
+
+    /// The spot being simulated, which determines the distribution of outcomes, regardless of the
+    /// random number generator.
+    record Spot(long pocket, long board, long constraints) {}
+
+    Spot spot() {
+        return new Spot(
+            pocket[0].mask() | pocket[1].mask(),
+            partial.mask(),
+            players | (long) variant.ordinal() << 8
         );
     }
 
@@ -215,17 +971,68 @@ public sealed abstract class Monty {
     /// with, including that player: 0 means that player lost, 1 means that player won, and n > 1
     /// means an n-way tie.
     ///
+    /// In [hi-lo][Preflop#hiLo()] games, the five low-order bits of an outcome indicate how the
+    /// high half of the pot was split, and the next five bits indicate how the low half of the
+    /// pot was split: 0 means nobody qualified for low and the high hand won the whole pot, 1
+    /// means that player lost the low half, and n > 1 means an (n - 1)-way tie for low.
+    ///
     /// @see #limit(long)
     public IntStream stream() {
-        Stream<Card> cards = Card.all().filter(card -> !card.in(mask(partial, pocket)));
-        var deck = new Deck(requireNonNullElseGet(rng, Generator::new), cards);
-        Spliterator.OfInt simulation = new Simulation(deck);
+        Spliterator.OfInt simulation = simulation(deck());
         boolean parallel = true;
         return StreamSupport.intStream(simulation, parallel);
     }
 
-    private final class Simulation implements Spliterator.OfInt {
-        private final Deck deck;
+    /// The cards in the deck that haven't been dealt.
+    private Stream<Card> unseen() {
+        boolean shortDeck = variant == Variant.SHORT_DECK;
+        return (shortDeck ? Card.shortDeck() : Card.all()).filter(
+            card -> !card.in(mask(partial, pocket))
+        );
+    }
+
+    /// A deck without the cards already dealt.
+    private Deck deck() {
+        return new Deck(requireNonNullElseGet(rng, Generator::new), unseen());
+    }
+
+    /// An empty showdown for this game.
+    private Showdown showdown() {
+        return showdown(players);
+    }
+
+    /// An empty showdown for this game with the given number of players.
+    private Showdown showdown(int players) {
+        return new Showdown(players, variant == Variant.HI_LO);
+    }
+
+    /// Evaluate a hand according to the rules of the game.
+    private int evaluate(Hand hand) {
+        return variant == Variant.SHORT_DECK ? hand.evaluateShortDeck() : hand.evaluate();
+    }
+
+    /// A new simulation of the given number of trials, specialized for the number of community
+    /// cards already dealt, so that each trial only does the work that depends on the cards it
+    /// deals.
+    private Simulation simulation(Deck deck, long trials) {
+        if (variant == Variant.HI_LO) {
+            return new SplitPotSimulation(deck, trials);
+        }
+        return switch (board) {
+            case 5 -> new RiverSimulation(deck, trials);
+            case 4 -> new TurnSimulation(deck, trials);
+            case 3 -> new FlopSimulation(deck, trials);
+            default -> new PreflopSimulation(deck, trials);
+        };
+    }
+
+    /// A new simulation that runs trials indefinitely.
+    private Simulation simulation(Deck deck) {
+        return simulation(deck, Long.MAX_VALUE);
+    }
+
+    private abstract sealed class Simulation implements Spliterator.OfInt {
+        final Deck deck;
 
         private long trials;
 
@@ -234,10 +1041,6 @@ public sealed abstract class Monty {
             this.trials = trials;
         }
 
-        private Simulation(Deck deck) {
-            this(deck, Long.MAX_VALUE);
-        }
-
         @Override
         public int characteristics() {
             return IMMUTABLE | NONNULL | SIZED | SUBSIZED;
@@ -250,7 +1053,7 @@ public sealed abstract class Monty {
 
         @Override
         public Spliterator.OfInt trySplit() {
-            return trials <= 1 ? null : new Simulation(
+            return trials <= 1 ? null : simulation(
                 deck.split(),
                 trials - (trials >>>= 1)
             );
@@ -262,20 +1065,64 @@ public sealed abstract class Monty {
                 return false;
             }
             trials--;
-            deck.shuffle();
-            Hand hand = partial;
-            switch (board) {
-                case 0: hand = hand.add(deck.deal())
-                                   .add(deck.deal())
-                                   .add(deck.deal());
-                case 3: hand = hand.add(deck.deal());
-                case 4: hand = hand.add(deck.deal());
-                case 5: break;
-            }
-            int player = hand.add(pocket[0]).add(pocket[1]).evaluate();
+            consumer.accept(trial());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer consumer) {
+            for (; trials > 0; trials--) {
+                consumer.accept(trial());
+            }
+        }
+
+        /// The value of the hero's hand with the board from the last [deal][#deal()], in games
+        /// that aren't [hi-lo][Preflop#hiLo()].
+        int value;
+
+        /// Shuffle the deck and deal the rest of the board from one random number, leaving the
+        /// value of the hero's hand in [#value].
+        ///
+        /// @see Deck#deal(Hand, int)
+        abstract Hand deal();
+
+        /// Deal the rest of the board and the opponents' hole cards, and determine the outcome.
+        ///
+        /// Each opponent's pair of hole cards is dealt from one random number.
+        int trial() {
+            Hand board = deal();
+            return pot(board, value);
+        }
+
+        /// Deal the rest of the board and the opponents' hole cards, and count the outcome for
+        /// every number of players at once: the outcome with `n` players, decided by the first
+        /// `n - 1` opponents dealt, is counted in `outcomes[n]`.
+        ///
+        /// Once the hero loses to an opponent, the hero loses with any more players, too, so
+        /// the loss is counted just once in `losses[n]` for the fewest players `n` that it
+        /// happens with, and no more opponents are dealt.
+        void curve(long[][] outcomes, long[] losses) {
+            Hand board = deal();
+            int split = 1;
+            for (int n = 2; n <= players; n++) {
+                int opponent = evaluate(deck.deal(board, 2));
+                switch (signum(value - opponent)) {
+                    case +0 -> split++;
+                    case -1 -> {
+                        losses[n]++;
+                        return;
+                    }
+                }
+                outcomes[n][split]++;
+            }
+        }
+
+        /// Deal the opponents' hole cards and determine how the pot is split, given the whole
+        /// board and the value of the hero's hand.
+        final int pot(Hand board, int player) {
             int split = 1;
             for (int n = 1; n < players; n++) {
-                int opponent = hand.add(deck.deal()).add(deck.deal()).evaluate();
+                int opponent = evaluate(deck.deal(board, 2));
                 switch (signum(player - opponent)) {
                     case +0: split++;
                     case +1: continue;
@@ -283,11 +1130,164 @@ public sealed abstract class Monty {
                 }
                 break;
             }
-            consumer.accept(split);
-            return true;
+            return split;
         }
     }
 
+    /// Trials that deal the whole board.
+    private final class PreflopSimulation extends Simulation {
+        private PreflopSimulation(Deck deck, long trials) {
+            super(deck, trials);
+        }
+
+        @Override
+        Hand deal() {
+            deck.shuffle();
+            Hand board = deck.deal(partial, 5);
+            value = evaluate(board.add(pocket[0]).add(pocket[1]));
+            return board;
+        }
+    }
+
+    /// Trials that deal the turn and the river.
+    ///
+    /// The board and the hero's hand with each possible turn card are made up front, so each
+    /// trial adds just the river card to each of them.
+    private final class FlopSimulation extends Simulation {
+        /// The board with each possible turn card, indexed by its [offset][Card#offset()].
+        private final Hand[] boards = new Hand[Long.SIZE];
+
+        /// The hero's hand with each possible turn card, indexed by its [offset][Card#offset()].
+        private final Hand[] hands = new Hand[Long.SIZE];
+
+        private FlopSimulation(Deck deck, long trials) {
+            super(deck, trials);
+            unseen().forEach(card -> {
+                boards[card.offset()] = partial.add(card);
+                hands[card.offset()] = boards[card.offset()].add(pocket[0]).add(pocket[1]);
+            });
+        }
+
+        @Override
+        Hand deal() {
+            deck.shuffle();
+            deck.draw(2);
+            int turn = deck.dealt(0).offset();
+            Card river = deck.dealt(1);
+            value = evaluate(hands[turn].add(river));
+            return boards[turn].add(river);
+        }
+    }
+
+    /// Trials that deal the river.
+    ///
+    /// The board and the value of the hero's hand with each possible river card are computed up
+    /// front, so each trial only deals and evaluates the opponents' hands.
+    private final class TurnSimulation extends Simulation {
+        /// The board with each possible river card, indexed by its [offset][Card#offset()].
+        private final Hand[] boards = new Hand[Long.SIZE];
+
+        /// The value of the hero's hand with each possible river card, indexed by its
+        /// [offset][Card#offset()].
+        private final int[] values = new int[Long.SIZE];
+
+        private TurnSimulation(Deck deck, long trials) {
+            super(deck, trials);
+            unseen().forEach(card -> {
+                boards[card.offset()] = partial.add(card);
+                values[card.offset()] = evaluate(
+                    boards[card.offset()].add(pocket[0]).add(pocket[1])
+                );
+            });
+        }
+
+        @Override
+        Hand deal() {
+            deck.shuffle();
+            deck.draw(1);
+            int river = deck.dealt(0).offset();
+            value = values[river];
+            return boards[river];
+        }
+    }
+
+    /// Trials on a complete board, which only deal the opponents' hole cards.
+    private final class RiverSimulation extends Simulation {
+        private RiverSimulation(Deck deck, long trials) {
+            super(deck, trials);
+            value = evaluate(partial.add(pocket[0]).add(pocket[1])); // shared by every trial
+        }
+
+        @Override
+        Hand deal() {
+            deck.shuffle();
+            return partial;
+        }
+    }
+
+    /// Trials of [hi-lo][Preflop#hiLo()] games on any street.
+    private final class SplitPotSimulation extends Simulation {
+        private SplitPotSimulation(Deck deck, long trials) {
+            super(deck, trials);
+        }
+
+        @Override
+        Hand deal() {
+            deck.shuffle();
+            return deck.deal(partial, 5 - board);
+        }
+
+        @Override
+        int trial() {
+            return splitPot(deal());
+        }
+
+        @Override
+        void curve(long[][] outcomes, long[] losses) {
+            Hand board = deal();
+            Hand hand = board.add(pocket[0]).add(pocket[1]);
+            int player = hand.evaluate(), low = hand.evaluateEightOrBetter(), best = low;
+            int high = 1, split = low < 0 ? 0 : 1;
+            for (int n = 2; n <= players; n++) {
+                hand = deck.deal(board, 2);
+                int opponent = hand.evaluateEightOrBetter();
+                high = split(high, player, hand.evaluate());
+                split = split(split, low, opponent);
+                best = Math.max(best, opponent);
+                if ((high | split) == 0) {
+                    losses[n]++;
+                    return;
+                }
+                outcomes[n][high | (best < 0 ? 0 : split + 1) << 5]++;
+            }
+        }
+
+        /// Deal the opponents' hole cards and determine how the high and low halves of the pot
+        /// are split.
+        private int splitPot(Hand board) {
+            Hand hand = board.add(pocket[0]).add(pocket[1]);
+            int player = hand.evaluate(), low = hand.evaluateEightOrBetter(), best = low;
+            int high = 1, split = low < 0 ? 0 : 1;
+            for (int n = 1; n < players && (high | split) != 0; n++) {
+                hand = deck.deal(board, 2);
+                int opponent = hand.evaluateEightOrBetter();
+                high = split(high, player, hand.evaluate());
+                split = split(split, low, opponent);
+                best = Math.max(best, opponent);
+            }
+            return (high | split) == 0 ? 0 : high | (best < 0 ? 0 : split + 1) << 5;
+        }
+    }
+
+    /// Update the number of ways a pot is split, given the values of the hero and an opponent.
+    private static int split(int split, int player, int opponent) {
+        return switch (signum(player - opponent)) {
+            case +0 -> split == 0 ? 0 : split + 1;
+            case +1 -> split;
+            default -> 0;
+        };
+    }
+
     /// A summary of the results of a simulation.
     public static final class Showdown {
         /// Greatest common divisor.
@@ -308,33 +1308,152 @@ public sealed abstract class Monty {
             return pots;
         }
 
+        /// Split-pot shares in units of twice the least common multiple of [1..players], indexed
+        /// by [hi-lo outcomes][Monty#stream()].
+        private static long[][] splitPots() {
+            var pots = new long[24][];
+            long lcm = 1L; // least common multiple
+            for (int players = 2; players < pots.length; players++) {
+                lcm *= players / gcd(lcm, players); // lcm of [1..players]
+                pots[players] = new long[(players + 2) << 5];
+                for (int high = 1; high <= players; high++) {
+                    pots[players][high] = 2 * lcm / high; // nobody qualified for low
+                }
+                for (int low = 1; low <= players + 1; low++) {
+                    for (int high = 0; high <= players; high++) {
+                        pots[players][high | low << 5] = (high == 0 ? 0 : lcm / high)
+                                                       + (low == 1 ? 0 : lcm / (low - 1));
+                    }
+                }
+            }
+            return pots;
+        }
+
         private static final long[][] pots = pots();
 
+        private static final long[][] splitPots = splitPots();
+
+        /// The share of the pot won for each possible outcome.
         private final long[] pot;
 
-        private long winnings;
+        /// A histogram counting the trials with each possible outcome.
+        private final long[] outcomes;
 
-        private long trials;
+        private Showdown(long[] pot) {
+            this.pot = pot;
+            this.outcomes = new long[pot.length];
+        }
 
-        private Showdown(int players) {
-            this.pot = pots[players];
-            this.winnings = 0;
-            this.trials = 0;
+        private Showdown(int players, boolean split) {
+            this((split ? splitPots : pots)[players]);
         }
 
-        private void accumulate(int split) {
-            winnings = Math.addExact(winnings, pot[split]);
-            trials++;
+        /// A new showdown summarizing the trials of both this showdown and the given one, like
+        /// pooling independently simulated batches of trials of the same spot.
+        ///
+        /// @throws IllegalArgumentException unless both showdowns are for the same number of
+        ///         players and the same kind of pot
+        public Showdown plus(Showdown showdown) {
+            if (showdown.pot.length != pot.length) { // unique to the players and the kind of pot
+                throw new IllegalArgumentException(
+                    "outcomes = %d (must be %d, for the same players and kind of pot)".formatted(
+                        showdown.pot.length,
+                        pot.length
+                    )
+                );
+            }
+            var sum = copy();
+            sum.combine(showdown);
+            return sum;
         }
 
-        private void combine(Showdown showdown) {
-            winnings = Math.addExact(winnings, showdown.winnings);
-            trials += showdown.trials;
+        /// A mutable copy of this showdown.
+        Showdown copy() {
+            var showdown = new Showdown(pot);
+            showdown.combine(this);
+            return showdown;
+        }
+
+        /// The histogram of outcomes, indexed by [outcome][Monty#stream()].
+        long[] outcomes() {
+            return outcomes;
+        }
+
+        void combine(Showdown showdown) {
+            for (int outcome = 0; outcome < outcomes.length; outcome++) {
+                outcomes[outcome] += showdown.outcomes[outcome];
+            }
+        }
+
+        /// The number of trials summarized by this showdown.
+        public long trials() {
+            return Arrays.stream(outcomes).sum();
+        }
+
+        private long winnings() {
+            long winnings = 0;
+            for (int outcome = 0; outcome < outcomes.length; outcome++) {
+                winnings = Math.addExact(
+                    winnings,
+                    Math.multiplyExact(outcomes[outcome], pot[outcome])
+                );
+            }
+            return winnings;
+        }
+
+        /// The fraction of trials with outcomes that satisfy the given predicate.
+        private double frequency(IntPredicate predicate) {
+            long count = 0;
+            for (int outcome = 0; outcome < outcomes.length; outcome++) {
+                if (predicate.test(outcome)) {
+                    count += outcomes[outcome];
+                }
+            }
+            return (double) count / trials();
         }
 
         /// The fraction of the pot won on average across every trial.
         public double equity() {
-            return (double) winnings / trials / pot[1];
+            return (double) winnings() / trials() / pot[1];
+        }
+
+        /// The standard error of the estimated [equity][#equity()], which shrinks in proportion to
+        /// the square root of the number of trials.
+        public double error() {
+            long trials = trials();
+            double mean = equity(), squares = 0;
+            for (int outcome = 0; outcome < outcomes.length; outcome++) {
+                double share = (double) pot[outcome] / pot[1];
+                squares += outcomes[outcome] * share * share;
+            }
+            double variance = (squares / trials - mean * mean) * trials / (trials - 1);
+            return Math.sqrt(Math.max(variance, 0) / trials);
+        }
+
+        /// The fraction of trials in which the whole pot was won without splitting it.
+        ///
+        /// In [hi-lo][Preflop#hiLo()] games, scooping means winning both halves of the pot
+        /// outright, or winning the high half outright when nobody qualifies for low.
+        public double scoops() {
+            return frequency(outcome -> pot[outcome] == pot[1]);
+        }
+
+        /// The fraction of trials in which the high half of a [split pot][Preflop#hiLo()] was won
+        /// outright, but none of the low half.
+        public double highHalves() {
+            return frequency(outcome -> outcome == (1 | 1 << 5));
+        }
+
+        /// The fraction of trials in which the low half of a [split pot][Preflop#hiLo()] was won
+        /// outright, but none of the high half.
+        public double lowHalves() {
+            return frequency(outcome -> outcome == (0 | 2 << 5));
+        }
+
+        /// The fraction of trials in which the low half of a [split pot][Preflop#hiLo()] was split
+        /// between two players, regardless of the high half.
+        public double lowQuarters() {
+            return frequency(outcome -> outcome >>> 5 == 3);
         }
 
         /// The ratio of estimated winnings to the size of the raise.
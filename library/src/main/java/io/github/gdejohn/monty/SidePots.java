@@ -0,0 +1,298 @@
+package io.github.gdejohn.monty;
+
+import io.github.gdejohn.monty.Deck.Generator;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveTask;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Objects.requireNonNullElseGet;
+
+/// The expected chips won by every player in a multiway all-in, with a main pot and side pots
+/// decided among different subsets of players.
+///
+/// Each player puts their whole stack in, except that nobody can lose more than the second
+/// largest stack, so the excess is returned to its owner, and counted in their chips. The rest
+/// is then divided into layers, one for each distinct stack, and each layer is won by the best
+/// hand among the players who covered it: the main pot is contested by everyone, and each side
+/// pot only by the players with more chips. Dead money, from players who folded, goes to the
+/// main pot.
+///
+/// Every player's hand is evaluated once per runout, and the values are reused for every pot.
+///
+/// ```java
+/// double[] chips = SidePots.board(SEVEN.of(CLUBS), TEN.of(CLUBS), ACE.of(HEARTS))
+///                          .player(EIGHT.of(CLUBS), NINE.of(CLUBS), 100)
+///                          .player(ACE.of(SPADES), KING.of(SPADES), 300)
+///                          .player(SEVEN.of(HEARTS), SEVEN.of(DIAMONDS), 500)
+///                          .chips(1 << 20);
+/// ```
+public final class SidePots {
+    /// The number of trials run by each fork/join task in [#simulate(long)].
+    private static final int BLOCK = 1 << 12;
+
+    /// The partial hand made from the community cards already dealt.
+    private final Hand board;
+
+    /// Each player's hole cards.
+    private final Card[][] pockets;
+
+    /// Each player's stack, all in.
+    private final long[] stacks;
+
+    /// The chips in the main pot from players who aren't in the hand.
+    private final long dead;
+
+    /// The source of random numbers to use for the simulation.
+    private final SplittableGenerator rng;
+
+    private SidePots(
+        Hand board,
+        Card[][] pockets,
+        long[] stacks,
+        long dead,
+        SplittableGenerator rng
+    ) {
+        this.board = board;
+        this.pockets = pockets;
+        this.stacks = stacks;
+        this.dead = dead;
+        this.rng = rng;
+    }
+
+    /// Specify the community cards already dealt: none, the flop, the turn, or the river.
+    public static SidePots board(Card... cards) {
+        var board = Hand.of(cards);
+        if (cards.length == 1 || cards.length == 2 || cards.length > 5) {
+            throw new IllegalArgumentException(
+                "board = %s (must be zero, three, four, or five cards)".formatted(
+                    Card.string(Arrays.stream(cards))
+                )
+            );
+        }
+        return new SidePots(board, new Card[0][], new long[0], 0, null);
+    }
+
+    /// Add a player with the given hole cards who is all in with the given stack.
+    public SidePots player(Card first, Card second, long stack) {
+        long dealt = dealt();
+        if (stack < 1) {
+            throw new IllegalArgumentException(
+                "stack = %d (must be positive)".formatted(stack)
+            );
+        } else if (pockets.length == 23) { // enough cards for every player and the board
+            throw new IllegalArgumentException("players = 24 (must be less than 24)");
+        } else if ((dealt & (first.mask() | second.mask())) != 0L || first.equals(second)) {
+            throw new IllegalArgumentException(
+                "pocket = %s (must be disjoint from the board and the other players)".formatted(
+                    Card.string(Stream.of(first, second))
+                )
+            );
+        }
+        var pockets = Arrays.copyOf(this.pockets, this.pockets.length + 1);
+        pockets[this.pockets.length] = new Card[] {first, second};
+        var stacks = Arrays.copyOf(this.stacks, this.stacks.length + 1);
+        stacks[this.stacks.length] = stack;
+        return new SidePots(board, pockets, stacks, dead, rng);
+    }
+
+    /// Copy this instance but change the chips in the main pot from players who folded.
+    public SidePots dead(long chips) {
+        if (chips < 0) {
+            throw new IllegalArgumentException(
+                "chips = %d (must be nonnegative)".formatted(chips)
+            );
+        }
+        return new SidePots(board, pockets, stacks, chips, rng);
+    }
+
+    /// Copy this instance but change the random number generator.
+    public SidePots rng(SplittableGenerator rng) {
+        return new SidePots(board, pockets, stacks, dead, rng);
+    }
+
+    /// The expected chips won by each player, in the order they were added, including their own
+    /// chips, and the excess over the second largest stack, which is returned to whoever has the
+    /// largest stack. The chips add up to every stack plus the dead money.
+    ///
+    /// From the flop on, there are at most 1,081 runouts (47 choose 2), so every one of them is
+    /// [enumerated][#exact()], and the given number of trials is ignored. Before the flop, the
+    /// runouts are [simulated][#simulate(long)].
+    public double[] chips(long trials) {
+        return board.size() < 3 ? simulate(trials) : exact();
+    }
+
+    /// The exact expected chips won by each player, averaged over every runout in parallel.
+    public double[] exact() {
+        var cards = unseen();
+        var pots = pots();
+        var runouts = Subsets.of(Hand.of(cards), 5 - board.size()).hands(board);
+        return StreamSupport.stream(runouts, true).collect(
+            () -> new Runouts(pots),
+            Runouts::resolve,
+            Runouts::combine
+        ).expected();
+    }
+
+    /// The expected chips won by each player, estimated by simulating the given number of
+    /// runouts in parallel.
+    public double[] simulate(long trials) {
+        if (trials < 1) {
+            throw new IllegalArgumentException(
+                "trials = %d (must be positive)".formatted(trials)
+            );
+        }
+        var rng = requireNonNullElseGet(this.rng, Generator::new);
+        var deck = new Deck(rng, Arrays.stream(unseen()));
+        return new Trials(pots(), deck, trials).invoke().expected();
+    }
+
+    /// The cards that haven't been dealt to the board or any player.
+    private Card[] unseen() {
+        if (pockets.length < 2) {
+            throw new IllegalArgumentException(
+                "players = %d (must be greater than 1)".formatted(pockets.length)
+            );
+        }
+        long dealt = dealt();
+        return Card.all().filter(card -> !card.in(dealt)).toArray(Card[]::new);
+    }
+
+    /// The cards on the board and in every player's hand.
+    private long dealt() {
+        long dealt = board.mask();
+        for (var pocket : pockets) {
+            dealt |= pocket[0].mask() | pocket[1].mask();
+        }
+        return dealt;
+    }
+
+    /// The pots, from the main pot up, each as the chips in it and a bit set of the players
+    /// eligible to win it, and the chips returned to each player.
+    private Pots pots() {
+        long[] sorted = stacks.clone();
+        Arrays.sort(sorted);
+        long cap = sorted[sorted.length - 2]; // the excess over the second largest is returned
+        long[] levels = Arrays.stream(sorted).map(
+            stack -> Math.min(stack, cap)
+        ).distinct().toArray();
+        var chips = new long[levels.length];
+        var eligible = new long[levels.length];
+        for (int pot = 0; pot < levels.length; pot++) {
+            long floor = pot == 0 ? 0 : levels[pot - 1];
+            chips[pot] = pot == 0 ? dead : 0;
+            for (int player = 0; player < stacks.length; player++) {
+                long stack = Math.min(stacks[player], cap);
+                if (stack >= levels[pot]) {
+                    chips[pot] += levels[pot] - floor;
+                    eligible[pot] |= 1L << player;
+                } else if (stack > floor) {
+                    chips[pot] += stack - floor;
+                }
+            }
+        }
+        var returned = new long[stacks.length];
+        for (int player = 0; player < stacks.length; player++) {
+            returned[player] = Math.max(stacks[player] - cap, 0);
+        }
+        return new Pots(chips, eligible, returned);
+    }
+
+    private record Pots(long[] chips, long[] eligible, long[] returned) {}
+
+    /// The chips won by each player, summed over some number of runouts.
+    private final class Runouts {
+        private final Pots pots;
+
+        private final double[] chips = new double[pockets.length];
+
+        /// Scratch space for the value of each player's hand.
+        private final int[] values = new int[pockets.length];
+
+        private long runouts;
+
+        private Runouts(Pots pots) {
+            this.pots = pots;
+        }
+
+        /// Evaluate every player's hand on the given complete board, and award every pot.
+        private Runouts resolve(Hand board) {
+            for (int player = 0; player < pockets.length; player++) {
+                values[player] = board.add(pockets[player][0]).add(pockets[player][1]).evaluate();
+            }
+            for (int pot = 0; pot < pots.chips.length; pot++) {
+                long eligible = pots.eligible[pot];
+                int best = -1, winners = 0;
+                for (long players = eligible; players != 0; players &= players - 1) {
+                    int value = values[Long.numberOfTrailingZeros(players)];
+                    if (value > best) {
+                        best = value;
+                        winners = 1;
+                    } else if (value == best) {
+                        winners++;
+                    }
+                }
+                double share = (double) pots.chips[pot] / winners;
+                for (long players = eligible; players != 0; players &= players - 1) {
+                    int player = Long.numberOfTrailingZeros(players);
+                    if (values[player] == best) {
+                        chips[player] += share;
+                    }
+                }
+            }
+            runouts++;
+            return this;
+        }
+
+        private Runouts combine(Runouts other) {
+            for (int player = 0; player < chips.length; player++) {
+                chips[player] += other.chips[player];
+            }
+            runouts += other.runouts;
+            return this;
+        }
+
+        /// The average chips won by each player, plus the chips returned to them.
+        private double[] expected() {
+            var expected = new double[chips.length];
+            for (int player = 0; player < chips.length; player++) {
+                expected[player] = chips[player] / runouts + pots.returned[player];
+            }
+            return expected;
+        }
+    }
+
+    /// A fork/join task that simulates a given number of runouts.
+    private final class Trials extends RecursiveTask<Runouts> {
+        private final Pots pots;
+
+        private final Deck deck;
+
+        private final long trials;
+
+        private Trials(Pots pots, Deck deck, long trials) {
+            this.pots = pots;
+            this.deck = deck;
+            this.trials = trials;
+        }
+
+        @Override
+        protected Runouts compute() {
+            if (trials <= BLOCK) {
+                var runouts = new Runouts(pots);
+                int missing = 5 - board.size();
+                for (long trial = 0; trial < trials; trial++) {
+                    deck.shuffle();
+                    runouts.resolve(deck.deal(board, missing));
+                }
+                return runouts;
+            }
+            long half = (trials + BLOCK - 1) / BLOCK / 2 * BLOCK; // whole blocks on the left
+            var left = new Trials(pots, deck.split(), half);
+            left.fork();
+            return new Trials(pots, deck, trials - half).compute().combine(left.join());
+        }
+    }
+}
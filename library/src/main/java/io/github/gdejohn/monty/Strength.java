@@ -0,0 +1,179 @@
+package io.github.gdejohn.monty;
+
+import java.util.Arrays;
+
+/// Dense strength ranks for the values of seven-card hands.
+///
+/// [Hand values][Hand#evaluate()] are sparse 30-bit integers, but only 4,824 of them can be the
+/// value of a seven-card hand. Strengths number those values from 0 to 4,823 in the same order,
+/// so that histograms, cumulative distributions, and comparisons over hand values can use small
+/// arrays instead of maps.
+///
+/// Strengths are mapped back to values with a table, and values are mapped to strengths with a
+/// perfect hash, which never takes more than one probe: each value is hashed to a bucket, and
+/// each bucket stores a displacement chosen so that the values in every bucket hash to distinct
+/// slots. Both directions take a few arithmetic operations and two or three reads from tables
+/// that fit in L1 cache together.
+public final class Strength {
+    /// The number of distinct values of seven-card hands.
+    public static final int COUNT = 4_824;
+
+    /// The number of buckets in the perfect hash.
+    private static final int BUCKETS = 1 << 11;
+
+    /// The number of slots in the perfect hash.
+    private static final int SLOTS = 1 << 13;
+
+    /// Every seven-card value, in ascending order.
+    private static final int[] values = values();
+
+    /// The displacement of the slots for each bucket.
+    private static final char[] displacements = new char[BUCKETS];
+
+    /// The strength of the value that hashes to each slot.
+    private static final short[] strengths = new short[SLOTS];
+
+    static {
+        displace();
+    }
+
+    private Strength() {}
+
+    /// The dense strength of the given [value][Hand#evaluate()], from 0 to 4,823, or -1 if
+    /// the value isn't the value of any seven-card hand.
+    ///
+    /// Hands with greater values have greater strengths, and hands with equal values have equal
+    /// strengths.
+    public static int of(int value) {
+        int strength = strengths[slot(value, displacements[bucket(value)])];
+        return values[strength] == value ? strength : -1;
+    }
+
+    /// The [value][Hand#evaluate()] of seven-card hands with the given strength.
+    public static int value(int strength) {
+        if (strength < 0 || strength >= COUNT) {
+            throw new IllegalArgumentException(
+                "strength = %d (must be nonnegative and less than %d)".formatted(strength, COUNT)
+            );
+        }
+        return values[strength];
+    }
+
+    private static int bucket(int value) {
+        return (int) (value * 0x9E37_79B9_7F4A_7C15L >>> -11);
+    }
+
+    private static int slot(int value, int displacement) {
+        return (int) ((value + ((long) displacement << 32)) * 0xBF58_476D_1CE4_E5B9L >>> -13);
+    }
+
+    /// Evaluate a representative seven-card hand for every equivalence class.
+    ///
+    /// Without a flush, the value of a hand only depends on its ranks, so every multiset of
+    /// seven ranks is dealt round-robin across the suits, which spreads the cards too thin for a
+    /// flush. With a flush, the value only depends on the top five suited cards, so every five
+    /// suited ranks are dealt together with an off-suit pair of two of those ranks, which can't
+    /// beat a flush.
+    private static int[] values() {
+        var values = new int[1 << 16];
+        int count = multisets(Hand.empty(), 0, 7, values, 0);
+        for (int flush = 0; flush < 1 << 13; flush++) {
+            if (Integer.bitCount(flush) == 5) {
+                var hand = Hand.empty();
+                for (int ranks = flush; ranks != 0; ranks &= ranks - 1) {
+                    hand = hand.add(Card.of(Integer.numberOfTrailingZeros(ranks), 0));
+                }
+                int first = Integer.numberOfTrailingZeros(flush);
+                int second = Integer.numberOfTrailingZeros(flush & flush - 1);
+                values[count++] = hand.add(Card.of(first, 1)).add(Card.of(second, 1)).evaluate();
+            }
+        }
+        Arrays.sort(values, 0, count);
+        int distinct = 0;
+        for (int n = 0; n < count; n++) {
+            if (n == 0 || values[n] != values[n - 1]) {
+                values[distinct++] = values[n];
+            }
+        }
+        if (distinct != COUNT) {
+            throw new AssertionError(distinct);
+        }
+        return Arrays.copyOf(values, distinct);
+    }
+
+    /// Deal every multiset of the given number of ranks, from the given rank up, round-robin
+    /// across the suits, and evaluate the resulting hands.
+    ///
+    /// @return the number of values so far
+    private static int multisets(Hand hand, int from, int size, int[] values, int count) {
+        if (size == 0) {
+            values[count] = hand.evaluate();
+            return count + 1;
+        }
+        for (int rank = from; rank < 13; rank++) {
+            var copies = hand;
+            for (int n = 1; n <= 4 && n <= size; n++) {
+                copies = copies.add(Card.of(rank, copies.size() % 4));
+                count = multisets(copies, rank + 1, size - n, values, count);
+            }
+        }
+        return count;
+    }
+
+    /// Choose a displacement for every bucket, largest buckets first, such that every value
+    /// hashes to its own slot.
+    private static void displace() {
+        var sizes = new int[BUCKETS];
+        for (int value : values) {
+            sizes[bucket(value)]++;
+        }
+        var buckets = new int[BUCKETS][];
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            buckets[bucket] = new int[sizes[bucket]];
+            sizes[bucket] = 0;
+        }
+        for (int strength = 0; strength < COUNT; strength++) {
+            int bucket = bucket(values[strength]);
+            buckets[bucket][sizes[bucket]++] = strength;
+        }
+        var occupied = new boolean[SLOTS];
+        int largest = 0;
+        for (int size : sizes) {
+            largest = Math.max(largest, size);
+        }
+        for (int size = largest; size > 0; size--) {
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                if (sizes[bucket] == size) {
+                    int displacement = displacement(buckets[bucket], occupied);
+                    displacements[bucket] = (char) displacement;
+                    for (int strength : buckets[bucket]) {
+                        int slot = slot(values[strength], displacement);
+                        occupied[slot] = true;
+                        strengths[slot] = (short) strength;
+                    }
+                }
+            }
+        }
+    }
+
+    /// The first displacement that sends the given strengths' values to distinct free slots.
+    private static int displacement(int[] members, boolean[] occupied) {
+        var slots = new int[members.length];
+        search:
+        for (int displacement = 0; displacement <= Character.MAX_VALUE; displacement++) {
+            for (int n = 0; n < members.length; n++) {
+                slots[n] = slot(values[members[n]], displacement);
+                if (occupied[slots[n]]) {
+                    continue search;
+                }
+                for (int m = 0; m < n; m++) {
+                    if (slots[m] == slots[n]) {
+                        continue search;
+                    }
+                }
+            }
+            return displacement;
+        }
+        throw new AssertionError("no displacement");
+    }
+}
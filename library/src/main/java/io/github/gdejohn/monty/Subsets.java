@@ -0,0 +1,229 @@
+package io.github.gdejohn.monty;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/// Every subset with a given number of cards of a given set of cards, each as a bit mask like
+/// [Card#mask()], in colexicographic order.
+///
+/// Numbering the given cards from 0 in ascending order, each subset is first enumerated as a
+/// bit set of those numbers with Gosper's hack, which maps a bit set to the next greater one
+/// with the same number of 1-bits, and then [expanded][Long#expand(long, long)] to the bits of
+/// the cards. Splitting halves the remaining range of colexicographic ranks, unranking the
+/// midpoint with the combinatorial number system, so parallel streams get balanced work.
+///
+/// ```java
+/// var deck = Hand.of(Card.all().toArray(Card[]::new));
+/// long flops = Subsets.of(deck, 3).stream().parallel().count();
+/// ```
+///
+/// @see Hand#rank()
+public final class Subsets implements Spliterator.OfLong {
+    /// Binomial coefficients: `choose[n][k]` is `n` choose `k`.
+    private static final long[][] choose = choose();
+
+    /// The cards to choose from.
+    private final long cards;
+
+    /// The number of cards in each subset.
+    private final int size;
+
+    /// The colexicographic rank of the next subset.
+    private long index;
+
+    /// The colexicographic rank after the last subset.
+    private final long fence;
+
+    /// The next subset, as a bit set of card numbers.
+    private long subset;
+
+    private Subsets(long cards, int size, long index, long fence) {
+        this.cards = cards;
+        this.size = size;
+        this.index = index;
+        this.fence = fence;
+        this.subset = index < fence ? unrank(index, size) : 0L;
+    }
+
+    /// Every subset with the given number of cards of the given hand's cards.
+    public static Subsets of(Hand hand, int size) {
+        int count = hand.size();
+        if (size < 0 || size > count) {
+            throw new IllegalArgumentException(
+                "size = %d (must be nonnegative and no greater than %d)".formatted(size, count)
+            );
+        }
+        return new Subsets(hand.mask(), size, 0, choose[count][size]);
+    }
+
+    private static long[][] choose() {
+        var choose = new long[53][53];
+        for (int n = 0; n < 53; n++) {
+            choose[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                choose[n][k] = choose[n - 1][k - 1] + choose[n - 1][k];
+            }
+        }
+        return choose;
+    }
+
+    /// The bit set with the given number of 1-bits and the given colexicographic rank.
+    private static long unrank(long rank, int size) {
+        long subset = 0L;
+        for (int k = size, n = 52; k > 0; k--) {
+            do {
+                n--;
+            } while (choose[n][k] > rank);
+            rank -= choose[n][k];
+            subset |= 1L << n;
+        }
+        return subset;
+    }
+
+    /// The next greater bit set with the same number of 1-bits (Gosper's hack).
+    private static long next(long subset) {
+        long lowest = subset & -subset;
+        long ripple = subset + lowest;
+        return ((ripple ^ subset) >>> 2) / lowest | ripple;
+    }
+
+    /// The remaining subsets, sequentially.
+    public LongStream stream() {
+        return StreamSupport.longStream(this, false);
+    }
+
+    /// The remaining subsets, each added to the given hand, sequentially.
+    ///
+    /// @see #hands(Hand)
+    public Stream<Hand> stream(Hand hand) {
+        return StreamSupport.stream(hands(hand), false);
+    }
+
+    /// A view of the remaining subsets, each added to the given hand, which must not contain any
+    /// of the cards to choose from.
+    ///
+    /// Consecutive subsets in colexicographic order tend to share their highest cards, so each
+    /// hand is built by adding cards from the highest down, and the partial hands made from the
+    /// highest cards are kept and reused until one of those cards changes. Enumerating every
+    /// runout of the turn and the river from the flop this way adds each turn card once,
+    /// instead of once per river card. Advancing the view advances this spliterator.
+    public Spliterator<Hand> hands(Hand hand) {
+        if ((hand.mask() & cards) != 0L) {
+            throw new IllegalArgumentException(
+                "hand = %s (must be disjoint from the cards to choose from)".formatted(hand)
+            );
+        }
+        return new Hands(hand);
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | IMMUTABLE | NONNULL | SIZED | SUBSIZED;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    @Override
+    public Subsets trySplit() {
+        if (fence - index < 2) {
+            return null;
+        }
+        long middle = index + (fence - index >>> 1);
+        var prefix = new Subsets(cards, size, index, middle);
+        index = middle;
+        subset = unrank(middle, size);
+        return prefix;
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer consumer) {
+        if (index >= fence) {
+            return false;
+        }
+        consumer.accept(Long.expand(subset, cards));
+        if (++index < fence) {
+            subset = next(subset);
+        }
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(LongConsumer consumer) {
+        if (index >= fence) {
+            return;
+        }
+        long subset = this.subset;
+        for (long index = this.index + 1; index < fence; index++) {
+            consumer.accept(Long.expand(subset, cards));
+            subset = next(subset);
+        }
+        consumer.accept(Long.expand(subset, cards));
+        this.index = fence;
+    }
+
+    private final class Hands implements Spliterator<Hand> {
+        /// `partial[j]` is the given hand plus the `j` highest cards of the previous subset.
+        private final Hand[] partial = new Hand[size + 1];
+
+        /// The previous subset, as a bit mask of cards.
+        private long previous = -1L;
+
+        private Hands(Hand hand) {
+            partial[0] = hand;
+        }
+
+        @Override
+        public int characteristics() {
+            return Subsets.this.characteristics();
+        }
+
+        @Override
+        public long estimateSize() {
+            return Subsets.this.estimateSize();
+        }
+
+        @Override
+        public Spliterator<Hand> trySplit() {
+            var prefix = Subsets.this.trySplit();
+            return prefix == null ? null : prefix.new Hands(partial[0]);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Hand> consumer) {
+            return Subsets.this.tryAdvance((long subset) -> consumer.accept(hand(subset)));
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Hand> consumer) {
+            Subsets.this.forEachRemaining((long subset) -> consumer.accept(hand(subset)));
+        }
+
+        /// The given hand plus the given subset, reusing the cards above the highest card that
+        /// changed since the previous subset.
+        private Hand hand(long subset) {
+            int shared = 0;
+            if (previous != -1L) {
+                long changed = Long.highestOneBit(previous ^ subset);
+                shared = Long.bitCount(subset & -(changed << 1));
+            }
+            long cards = subset;
+            for (int n = 0; n < shared; n++) {
+                cards ^= Long.highestOneBit(cards);
+            }
+            for (int j = shared; j < size; j++) {
+                long card = Long.highestOneBit(cards);
+                partial[j + 1] = partial[j].add(Card.of(Long.numberOfTrailingZeros(card)));
+                cards ^= card;
+            }
+            previous = subset;
+            return partial[size];
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.gdejohn.monty;
+
+import io.github.gdejohn.monty.Monty.Showdown;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.github.gdejohn.monty.Card.Rank.ACE;
+import static io.github.gdejohn.monty.Card.Rank.EIGHT;
+import static io.github.gdejohn.monty.Card.Rank.NINE;
+import static io.github.gdejohn.monty.Card.Rank.SEVEN;
+import static io.github.gdejohn.monty.Card.Rank.TEN;
+import static io.github.gdejohn.monty.Card.Suit.CLUBS;
+import static io.github.gdejohn.monty.Card.Suit.HEARTS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CoalescerTest {
+    private static Monty monty() {
+        return Monty.pocket(EIGHT.of(CLUBS), NINE.of(CLUBS))
+                    .flop(SEVEN.of(CLUBS), TEN.of(CLUBS), ACE.of(HEARTS))
+                    .players(4);
+    }
+
+    @Test
+    void identical() throws Exception {
+        var coalescer = new Coalescer();
+        Callable<Showdown> request = () -> coalescer.limit(monty(), 1 << 22);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var first = executor.submit(request);
+            var second = executor.submit(request);
+            assertThat(second.get()).isSameAs(first.get());
+            assertThat(first.get().trials()).isEqualTo(1 << 22);
+        }
+    }
+
+    @Test
+    void extend() throws Exception {
+        var coalescer = new Coalescer();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Showdown> fewer = executor.submit(() -> coalescer.limit(monty(), 1 << 21));
+            Future<Showdown> more = executor.submit(() -> coalescer.limit(monty(), 1 << 22));
+            assertThat(fewer.get().trials()).isEqualTo(1 << 21);
+            assertThat(more.get().trials()).isEqualTo(1 << 22);
+            assertThat(more.get().equity()).isCloseTo(fewer.get().equity(), within(0.002d));
+        }
+    }
+
+    @Test
+    void sequential() {
+        var coalescer = new Coalescer();
+        var first = coalescer.limit(monty(), 1 << 16);
+        var second = coalescer.limit(monty(), 1 << 16);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.trials()).isEqualTo(1 << 16);
+    }
+
+    @Test
+    void distinctSpots() throws Exception {
+        var coalescer = new Coalescer();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var four = executor.submit(() -> coalescer.limit(monty(), 1 << 20));
+            var two = executor.submit(() -> coalescer.limit(monty().players(2), 1 << 20));
+            assertThat(two.get().equity()).isGreaterThan(four.get().equity());
+        }
+    }
+}
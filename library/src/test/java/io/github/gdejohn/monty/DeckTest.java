@@ -3,6 +3,7 @@ package io.github.gdejohn.monty;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -23,6 +24,64 @@ class DeckTest {
         assertThatThrownBy(deck::deal).isInstanceOf(IllegalArgumentException.class);
     }
 
+    @Test
+    void dealBatch() {
+        var deck = new Deck();
+        var hand = deck.deal(Hand.empty(), 2);
+        assertThat(hand.size()).isEqualTo(2);
+        hand = deck.deal(hand, 50);
+        assertThat(hand.size()).isEqualTo(52);
+        assertThat(deck.empty()).isTrue();
+        assertThatThrownBy(
+            () -> deck.deal(Hand.empty(), 1)
+        ).isInstanceOf(IllegalArgumentException.class);
+        deck.shuffle();
+        assertThat(deck.deal(Hand.empty(), 0).size()).isZero();
+        assertThatThrownBy(
+            () -> deck.deal(Hand.empty(), -1)
+        ).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void draw() {
+        byte[] seed = {4, 2};
+        var dealing = new Deck(new Deck.Generator(seed), Card.all());
+        var drawing = new Deck(new Deck.Generator(seed), Card.all());
+        for (int trial = 0; trial < 1_000; trial++) {
+            dealing.shuffle();
+            drawing.shuffle();
+            var hand = dealing.deal(Hand.empty(), 3);
+            drawing.draw(3);
+            assertThat(Hand.of(drawing.dealt(0), drawing.dealt(1), drawing.dealt(2))).isEqualTo(
+                hand
+            );
+            assertThat(drawing.first()).isEqualTo(dealing.first()).isEqualTo(drawing.dealt(0));
+        }
+    }
+
+    @Test
+    void dealBatchUniformly() {
+        var deck = new Deck(new Deck.Generator(), Card.all().limit(6));
+        var counts = new HashMap<Hand, Integer>();
+        for (int trial = 0; trial < 200_000; trial++) {
+            deck.shuffle();
+            counts.merge(deck.deal(Hand.empty(), 3), 1, Integer::sum);
+        }
+        assertThat(counts).hasSize(20); // 6 choose 3
+        assertThat(counts.values()).allMatch(count -> Math.abs(count - 10_000) < 500);
+    }
+
+    @Test
+    void shortDeck() {
+        var deck = Deck.shortDeck();
+        var cards = new HashSet<Card>();
+        while (!deck.empty()) {
+            assertThat(cards.add(deck.deal())).isTrue();
+        }
+        assertThat(cards).hasSize(36);
+        assertThat(cards).allMatch(card -> card.rank().compareTo(Card.Rank.SIX) >= 0);
+    }
+
     @Test
     void lehmerGenerator() {
         int multiplier = 0x93d765dd;
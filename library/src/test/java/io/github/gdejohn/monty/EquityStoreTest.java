@@ -0,0 +1,180 @@
+package io.github.gdejohn.monty;
+
+import io.github.gdejohn.monty.Deck.Generator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import static io.github.gdejohn.monty.Card.Rank.ACE;
+import static io.github.gdejohn.monty.Card.Rank.EIGHT;
+import static io.github.gdejohn.monty.Card.Rank.NINE;
+import static io.github.gdejohn.monty.Card.Rank.SEVEN;
+import static io.github.gdejohn.monty.Card.Rank.TEN;
+import static io.github.gdejohn.monty.Card.Suit.CLUBS;
+import static io.github.gdejohn.monty.Card.Suit.HEARTS;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EquityStoreTest {
+    private static Monty monty() {
+        return Monty.pocket(EIGHT.of(CLUBS), NINE.of(CLUBS))
+                    .flop(SEVEN.of(CLUBS), TEN.of(CLUBS), ACE.of(HEARTS))
+                    .players(4)
+                    .rng(new Generator(new byte[] {1, 2, 3, 4}));
+    }
+
+    @Test
+    void reuse(@TempDir Path directory) throws IOException {
+        try (var store = EquityStore.open(directory.resolve("equity"), 16)) {
+            var first = monty().limit(1 << 14, store);
+            var second = monty().limit(1 << 12, store);
+            assertThat(second.trials()).isEqualTo(1 << 14);
+            assertThat(second.equity()).isEqualTo(first.equity());
+        }
+    }
+
+    @Test
+    void topUp(@TempDir Path directory) throws IOException {
+        try (var store = EquityStore.open(directory.resolve("equity"), 16)) {
+            var first = monty().limit(1 << 12, store);
+            var second = monty().limit(1 << 14, store);
+            assertThat(second.trials()).isEqualTo(1 << 14);
+            assertThat(second.error()).isLessThan(first.error());
+            assertThat(monty().limit(1 << 14, store).equity()).isEqualTo(second.equity());
+        }
+    }
+
+    @Test
+    void persistence(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("equity");
+        double equity;
+        try (var store = EquityStore.open(path, 16)) {
+            equity = monty().limit(1 << 14, store).equity();
+        }
+        try (var store = EquityStore.open(path, 1 << 10)) {
+            assertThat(monty().limit(1 << 14, store).equity()).isEqualTo(equity);
+        }
+        assertThat(Files.size(path)).isEqualTo((8 + 16 * 32) * Long.BYTES);
+    }
+
+    /// Make the sequence number of every published entry odd, as if each writer died mid-merge.
+    private static void tear(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, READ, WRITE)) {
+            var sequence = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (int entry = 0; entry < 16; entry++) {
+                long position = (8 + entry * 32) * Long.BYTES;
+                channel.read(sequence.clear(), position);
+                long torn = sequence.flip().getLong() | 1;
+                if (torn > 1) {
+                    channel.write(sequence.clear().putLong(torn).flip(), position);
+                }
+            }
+        }
+    }
+
+    @Test
+    void repair(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("equity");
+        try (var store = EquityStore.open(path, 16)) {
+            monty().limit(1 << 14, store);
+        }
+        tear(path);
+        try (var store = EquityStore.open(path, 16)) {
+            // the torn outcomes are discarded, but the entry is usable again
+            assertThat(monty().limit(1 << 10, store).trials()).isEqualTo(1 << 10);
+            assertThat(monty().limit(1 << 8, store).trials()).isEqualTo(1 << 10);
+        }
+    }
+
+    @Test
+    void concurrentOpen(@TempDir Path directory) throws Exception {
+        var path = directory.resolve("equity");
+        var opens = new ArrayList<Callable<EquityStore>>();
+        var sizes = new ArrayList<Long>();
+        for (int n = 0; n < 8; n++) {
+            int capacity = 16 << n;
+            opens.add(() -> EquityStore.open(path, capacity));
+            sizes.add((8 + capacity * 32L) * Long.BYTES);
+        }
+        var stores = new ArrayList<EquityStore>();
+        try (var executor = Executors.newFixedThreadPool(opens.size())) {
+            for (var store : executor.invokeAll(opens)) {
+                stores.add(store.get());
+            }
+        }
+        try {
+            // whoever won the race created the store, and everyone else opened it
+            long size = Files.size(path);
+            assertThat(size).isIn(sizes);
+            monty().limit(1 << 12, stores.getFirst());
+            for (var store : stores) {
+                assertThat(monty().limit(1 << 10, store).trials()).isEqualTo(1 << 12);
+            }
+            assertThat(Files.size(path)).isEqualTo(size);
+        } finally {
+            for (var store : stores) {
+                store.close();
+            }
+        }
+    }
+
+    @Test
+    void shared(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("equity");
+        var first = EquityStore.open(path, 16);
+        try (var second = EquityStore.open(directory.resolve(".").resolve("equity"), 16)) {
+            monty().limit(1 << 12, first);
+            first.close();
+            first.close();
+            // the file stays open and locked for the other store
+            assertThat(monty().limit(1 << 10, second).trials()).isEqualTo(1 << 12);
+            monty().limit(1 << 13, second);
+        }
+        try (var store = EquityStore.open(path, 16)) {
+            assertThat(monty().limit(1 << 10, store).trials()).isEqualTo(1 << 13);
+        }
+    }
+
+    @Test
+    void distinctSpots(@TempDir Path directory) throws IOException {
+        try (var store = EquityStore.open(directory.resolve("equity"), 16)) {
+            var four = monty().limit(1 << 14, store);
+            var two = monty().players(2).limit(1 << 14, store);
+            assertThat(two.equity()).isGreaterThan(four.equity());
+            assertThat(monty().limit(1 << 14, store).equity()).isEqualTo(four.equity());
+        }
+    }
+
+    @Test
+    void full(@TempDir Path directory) throws IOException {
+        try (var store = EquityStore.open(directory.resolve("equity"), 1)) {
+            monty().limit(1 << 10, store);
+            assertThat(monty().players(2).limit(1 << 10, store).trials()).isEqualTo(1 << 10);
+            assertThat(monty().players(2).limit(1 << 10, store).trials()).isEqualTo(1 << 10);
+        }
+    }
+
+    @Test
+    void capacity(@TempDir Path directory) {
+        assertThatThrownBy(
+            () -> EquityStore.open(directory.resolve("equity"), 12)
+        ).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void notAStore(@TempDir Path directory) throws IOException {
+        var path = Files.writeString(directory.resolve("equity"), "not an equity store");
+        assertThatThrownBy(() -> EquityStore.open(path, 16)).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.gdejohn.monty;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static io.github.gdejohn.monty.Card.Rank.ACE;
+import static io.github.gdejohn.monty.Card.Rank.EIGHT;
+import static io.github.gdejohn.monty.Card.Rank.KING;
+import static io.github.gdejohn.monty.Card.Rank.NINE;
+import static io.github.gdejohn.monty.Card.Rank.SEVEN;
+import static io.github.gdejohn.monty.Card.Rank.TEN;
+import static io.github.gdejohn.monty.Card.Rank.TWO;
+import static io.github.gdejohn.monty.Card.Suit.CLUBS;
+import static io.github.gdejohn.monty.Card.Suit.DIAMONDS;
+import static io.github.gdejohn.monty.Card.Suit.HEARTS;
+import static io.github.gdejohn.monty.Card.Suit.SPADES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class FlopDatabaseTest {
+    /// The canonical flops with the ranks ace, ten, and seven.
+    private static long[] flops() {
+        int ranks = ACE.mask() | TEN.mask() | SEVEN.mask();
+        return Arrays.stream(FlopDatabase.flops()).filter(
+            flop -> ((flop | flop >>> 16 | flop >>> 32 | flop >>> 48) & 0x1FFF) == ranks
+        ).toArray();
+    }
+
+    @Test
+    void canonical() {
+        assertThat(FlopDatabase.flops()).hasSize(FlopDatabase.FLOPS).isSorted();
+        assertThat(flops()).hasSize(5);
+    }
+
+    @Test
+    void equities() {
+        char[] equities = FlopDatabase.equities(flops()[0]);
+        long sum = 0, count = 0;
+        for (char equity : equities) {
+            if (equity != Character.MAX_VALUE) {
+                sum += equity;
+                count++;
+            }
+        }
+        assertThat(count).isEqualTo(1_176);
+        assertThat((double) sum / count / (1 << 15)).isCloseTo(0.5d, within(0.0001d));
+    }
+
+    @Test
+    void lookup(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("flops");
+        FlopDatabase.write(path, flops());
+        var database = FlopDatabase.open(path);
+        var flop = Monty.pocket(EIGHT.of(CLUBS), NINE.of(CLUBS))
+                        .flop(SEVEN.of(CLUBS), TEN.of(CLUBS), ACE.of(HEARTS));
+        assertThat(flop.equity(database)).isCloseTo(0.6759d, within(0.0001d));
+        assertThat(flop.equity(database)).isCloseTo(flop.limit(1 << 20).equity(), within(0.003d));
+        var permuted = Monty.pocket(EIGHT.of(SPADES), NINE.of(SPADES))
+                            .flop(SEVEN.of(SPADES), TEN.of(SPADES), ACE.of(DIAMONDS));
+        assertThat(permuted.equity(database)).isEqualTo(flop.equity(database));
+        var missing = Monty.pocket(ACE.of(SPADES), KING.of(HEARTS))
+                           .flop(TWO.of(SPADES), TEN.of(SPADES), ACE.of(DIAMONDS));
+        assertThatThrownBy(
+            () -> missing.equity(database)
+        ).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(
+            () -> flop.players(3).equity(database)
+        ).isInstanceOf(IllegalArgumentException.class);
+    }
+}
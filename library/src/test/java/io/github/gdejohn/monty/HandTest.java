@@ -3,6 +3,8 @@ package io.github.gdejohn.monty;
 import org.junit.jupiter.api.Test;
 
 import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
 import java.util.TreeMap;
 import java.util.stream.Stream;
 
@@ -37,35 +39,51 @@ import static java.util.stream.Collectors.counting;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.IntStream.range;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.fail;
 
 class HandTest {
     private static final Card[] deck = Card.all().toArray(Card[]::new);
 
+    private static final Card[] shortDeck = Card.shortDeck().toArray(Card[]::new);
+
     private static Stream<Hand> hands() {
-        return range(0, 46).boxed().flatMap(
-            a -> range(a + 1, 47).boxed().flatMap(
-                b -> range(b + 1, 48).boxed().flatMap(
-                    c -> range(c + 1, 49).boxed().flatMap(
-                        d -> range(d + 1, 50).boxed().flatMap(
-                            e -> range(e + 1, 51).boxed().flatMap(
-                                f -> range(f + 1, 52).mapToObj(
-                                    g -> Hand.of(
-                                        deck[a],
-                                        deck[b],
-                                        deck[c],
-                                        deck[d],
-                                        deck[e],
-                                        deck[f],
-                                        deck[g]
-                                    )
-                                )
-                            )
-                        )
-                    )
-                )
+        return hands(deck, 7);
+    }
+
+    /// Every hand with the given number of cards from the given deck.
+    private static Stream<Hand> hands(Card[] deck, int size) {
+        return hands(deck, size, 0, Hand.empty());
+    }
+
+    private static Stream<Hand> hands(Card[] deck, int size, int from, Hand hand) {
+        return size == 0 ? Stream.of(hand) : range(from, deck.length - size + 1).boxed().flatMap(
+            n -> hands(deck, size - 1, n + 1, hand.add(deck[n]))
+        );
+    }
+
+    record Counts(int classes, int hands) {}
+
+    private static void assertCounts(Stream<Hand> hands, Map<Category,Counts> counts) {
+        var classes = hands.mapToInt(Hand::evaluate).boxed().collect(
+            groupingBy(
+                Category::of,
+                () -> new EnumMap<>(Category.class),
+                groupingBy(identity(), TreeMap::new, counting())
             )
         );
+        assertThat(classes).containsOnlyKeys(counts.keySet());
+        assertThat(classes).allSatisfy(
+            (category, values) -> {
+                assertThat(values).hasSize(counts.get(category).classes);
+                assertThat(values.keySet()).allMatch(
+                    value -> Integer.bitCount(value) == category.count
+                );
+                assertThat(
+                    values.values().stream().mapToInt(Math::toIntExact).sum()
+                ).isEqualTo(counts.get(category).hands);
+            }
+        );
     }
 
     @Test
@@ -94,6 +112,68 @@ class HandTest {
         );
     }
 
+    @Test
+    void fiveCardEquivalenceClasses() {
+        var counts = new EnumMap<Category,Counts>(Category.class);
+        counts.put(HIGH_CARD, new Counts(1_277, 1_302_540));
+        counts.put(ONE_PAIR, new Counts(2_860, 1_098_240));
+        counts.put(TWO_PAIR, new Counts(858, 123_552));
+        counts.put(THREE_OF_A_KIND, new Counts(858, 54_912));
+        counts.put(STRAIGHT, new Counts(10, 10_200));
+        counts.put(FLUSH, new Counts(1_277, 5_108));
+        counts.put(FULL_HOUSE, new Counts(156, 3_744));
+        counts.put(FOUR_OF_A_KIND, new Counts(156, 624));
+        counts.put(STRAIGHT_FLUSH, new Counts(10, 40));
+        assertCounts(hands(deck, 5), counts);
+    }
+
+    @Test
+    void sixCardEquivalenceClasses() {
+        var counts = new EnumMap<Category,Counts>(Category.class);
+        counts.put(HIGH_CARD, new Counts(770, 6_612_900));
+        counts.put(ONE_PAIR, new Counts(2_135, 9_730_740));
+        counts.put(TWO_PAIR, new Counts(846, 2_532_816));
+        counts.put(THREE_OF_A_KIND, new Counts(715, 732_160));
+        counts.put(STRAIGHT, new Counts(10, 361_620));
+        counts.put(FLUSH, new Counts(1_277, 205_792));
+        counts.put(FULL_HOUSE, new Counts(156, 165_984));
+        counts.put(FOUR_OF_A_KIND, new Counts(156, 14_664));
+        counts.put(STRAIGHT_FLUSH, new Counts(10, 1_844));
+        assertCounts(hands(deck, 6), counts);
+    }
+
+    @Test
+    void shortDeckEquivalenceClasses() {
+        var classes = hands(shortDeck, 7).mapToInt(Hand::evaluateShortDeck).boxed().collect(
+            groupingBy(
+                Category::ofShortDeck,
+                () -> new EnumMap<>(Category.class),
+                groupingBy(identity(), TreeMap::new, counting())
+            )
+        );
+        var counts = new EnumMap<Category,Counts>(Category.class);
+        counts.put(HIGH_CARD, new Counts(10, 233_100));
+        counts.put(ONE_PAIR, new Counts(138, 2_316_600));
+        counts.put(TWO_PAIR, new Counts(203, 3_157_056));
+        counts.put(THREE_OF_A_KIND, new Counts(125, 607_200));
+        counts.put(STRAIGHT, new Counts(6, 1_169_940));
+        counts.put(FULL_HOUSE, new Counts(72, 633_024));
+        counts.put(FLUSH, new Counts(120, 175_560));
+        counts.put(FOUR_OF_A_KIND, new Counts(72, 44_640));
+        counts.put(STRAIGHT_FLUSH, new Counts(6, 10_560));
+        assertThat(classes).containsOnlyKeys(counts.keySet());
+        assertThat(classes).allSatisfy(
+            (category, hands) -> {
+                assertThat(hands).hasSize(counts.get(category).classes);
+                assertThat(
+                    hands.values().stream().mapToInt(Math::toIntExact).sum()
+                ).isEqualTo(counts.get(category).hands);
+            }
+        );
+        assertThat(classes.get(FLUSH).firstKey()).isGreaterThan(classes.get(FULL_HOUSE).lastKey());
+        assertThat(classes.get(FOUR_OF_A_KIND).firstKey()).isGreaterThan(classes.get(FLUSH).lastKey());
+    }
+
     @Test
     void combinatorialHash() {
         record Stats(int count, int max) {}
@@ -110,6 +190,31 @@ class HandTest {
         assertThat(hashes.max).isEqualTo(count - 1);
     }
 
+    @Test
+    void rank() {
+        int count = 2_598_960; // 52 choose 5
+        assertThat(Hand.combinations(5)).isEqualTo(count);
+        assertThat(
+            hands(deck, 5).filter(hand -> {
+                var unranked = Hand.unrank(hand.rank(), 5);
+                return !unranked.equals(hand)
+                    || unranked.evaluatePartial() != hand.evaluatePartial();
+            }).count()
+        ).isZero();
+        assertThat(Hand.unrank(count - 1, 5).rank()).isEqualTo(count - 1);
+        assertThat(Hand.unrank(0, 0)).isEqualTo(Hand.empty());
+        assertThat(Hand.combinations(7)).isEqualTo(133_784_560);
+        assertThatThrownBy(
+            () -> Hand.unrank(count, 5)
+        ).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(
+            () -> Hand.unrank(0, 8)
+        ).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(
+            () -> Hand.of(Card.all().limit(8).toArray(Card[]::new)).rank()
+        ).isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     void highCard() {
         var hand = Hand.of(
@@ -433,4 +538,210 @@ class HandTest {
         assertThat(hand.category()).isEqualTo(STRAIGHT_FLUSH);
         assertThat(Card.string(hand.sort())).isEqualTo("(5d,4d,3d,2d,Ad)");
     }
+
+    @Test
+    void straightFlushOverPair() {
+        var hand = Hand.of(
+            JACK.of(CLUBS),
+            QUEEN.of(CLUBS),
+            TEN.of(CLUBS),
+            QUEEN.of(HEARTS),
+            KING.of(CLUBS),
+            ACE.of(CLUBS),
+            FIVE.of(CLUBS)
+        );
+        assertThat(hand.category()).isEqualTo(STRAIGHT_FLUSH);
+        assertThat(hand.best()).isEqualTo(
+            Hand.of(ACE.of(CLUBS), KING.of(CLUBS), QUEEN.of(CLUBS), JACK.of(CLUBS), TEN.of(CLUBS))
+                .mask()
+        );
+        assertThat(Card.string(hand.sort())).isEqualTo("(Ac,Kc,Qc,Jc,Tc)");
+    }
+
+    @Test
+    void best() {
+        assertThat(hands(deck, 5).filter(hand -> hand.best() != hand.mask())).isEmpty();
+        var random = new SplittableRandom(0);
+        for (int n = 0; n < 1_000_000; n++) {
+            var hand = Hand.unrank(random.nextInt(Hand.combinations(7)), 7);
+            long best = hand.best();
+            int order = hand.order();
+            var five = Hand.empty();
+            for (int card = 0; card < 5; card++) {
+                five = five.add(Card.of(order >>> 6 * card & 0b111111));
+            }
+            assertThat(five.mask()).isEqualTo(best);
+            assertThat(best & ~hand.mask()).isZero();
+            assertThat(five.evaluatePartial()).isEqualTo(hand.evaluate());
+        }
+        assertThatThrownBy(() -> Hand.of(ACE.of(CLUBS)).best()).isInstanceOf(
+            IllegalArgumentException.class
+        );
+    }
+
+    @Test
+    void shortDeckWheel() {
+        var hand = Hand.of(
+            SIX.of(DIAMONDS),
+            SEVEN.of(HEARTS),
+            EIGHT.of(SPADES),
+            NINE.of(CLUBS),
+            KING.of(DIAMONDS),
+            KING.of(HEARTS),
+            ACE.of(CLUBS)
+        );
+        assertThat(hand.evaluateShortDeck()).isEqualTo(0b0100_0000000000000_0000010000000);
+        assertThat(hand.categoryShortDeck()).isEqualTo(STRAIGHT);
+        assertThat(hand.category()).isEqualTo(ONE_PAIR);
+    }
+
+    @Test
+    void shortDeckFlush() {
+        var flush = Hand.of(
+            SIX.of(HEARTS),
+            EIGHT.of(HEARTS),
+            NINE.of(HEARTS),
+            JACK.of(HEARTS),
+            QUEEN.of(HEARTS),
+            QUEEN.of(SPADES),
+            KING.of(CLUBS)
+        );
+        var fullHouse = Hand.of(
+            SIX.of(CLUBS),
+            SIX.of(DIAMONDS),
+            ACE.of(CLUBS),
+            ACE.of(DIAMONDS),
+            ACE.of(SPADES),
+            KING.of(HEARTS),
+            QUEEN.of(DIAMONDS)
+        );
+        assertThat(flush.evaluateShortDeck()).isEqualTo(0b0110_0000000000000_0011011010000);
+        assertThat(flush.categoryShortDeck()).isEqualTo(FLUSH);
+        assertThat(fullHouse.categoryShortDeck()).isEqualTo(FULL_HOUSE);
+        assertThat(flush.evaluateShortDeck()).isGreaterThan(fullHouse.evaluateShortDeck());
+        assertThat(flush.evaluate()).isLessThan(fullHouse.evaluate());
+    }
+
+    @Test
+    void fiveCards() {
+        var flop = Hand.of(
+            KING.of(CLUBS),
+            KING.of(HEARTS),
+            ACE.of(SPADES),
+            QUEEN.of(DIAMONDS),
+            JACK.of(DIAMONDS)
+        );
+        assertThat(flop.evaluatePartial()).isEqualTo(0b0001_0100000000000_1011000000000);
+        assertThat(flop.category()).isEqualTo(ONE_PAIR);
+        var river = flop.add(TWO.of(CLUBS)).add(THREE.of(CLUBS));
+        assertThat(river.evaluate()).isEqualTo(flop.evaluatePartial());
+        assertThat(Card.string(flop.sort())).isEqualTo("(Kh,Kc,As,Qd,Jd)");
+    }
+
+    @Test
+    void sixCards() {
+        var threePair = Hand.of(
+            TWO.of(CLUBS),
+            TWO.of(HEARTS),
+            THREE.of(SPADES),
+            THREE.of(DIAMONDS),
+            FOUR.of(DIAMONDS),
+            FOUR.of(CLUBS)
+        );
+        assertThat(threePair.evaluatePartial()).isEqualTo(0b0010_0000000000110_0000000000001);
+        assertThat(threePair.category()).isEqualTo(TWO_PAIR);
+        var quadsAndPair = Hand.of(
+            TWO.of(CLUBS),
+            TWO.of(HEARTS),
+            TWO.of(SPADES),
+            TWO.of(DIAMONDS),
+            FOUR.of(DIAMONDS),
+            FOUR.of(CLUBS)
+        );
+        assertThat(quadsAndPair.evaluatePartial()).isEqualTo(0b0111_0000000000001_0000000000100);
+        assertThat(quadsAndPair.category()).isEqualTo(FOUR_OF_A_KIND);
+        assertThat(Hand.of(TWO.of(CLUBS), THREE.of(CLUBS)).evaluatePartial()).isEqualTo(-1);
+    }
+
+    @Test
+    void aceToFive() {
+        var wheel = Hand.of(
+            ACE.of(CLUBS),
+            TWO.of(DIAMONDS),
+            THREE.of(HEARTS),
+            FOUR.of(SPADES),
+            FIVE.of(CLUBS),
+            KING.of(CLUBS),
+            KING.of(DIAMONDS)
+        );
+        assertThat(wheel.evaluateAceToFive()).isEqualTo(~0b0000_0000000000000_0000000011111 & 0x3FFF_FFFF);
+        assertThat(wheel.evaluateEightOrBetter()).isEqualTo(wheel.evaluateAceToFive());
+        var pair = Hand.of(
+            ACE.of(CLUBS),
+            ACE.of(DIAMONDS),
+            THREE.of(HEARTS),
+            THREE.of(SPADES),
+            NINE.of(CLUBS),
+            KING.of(CLUBS),
+            KING.of(DIAMONDS)
+        );
+        assertThat(pair.evaluateAceToFive()).isEqualTo(~0b0001_0000000000001_1000100000100 & 0x3FFF_FFFF);
+        assertThat(pair.evaluateAceToFive()).isLessThan(wheel.evaluateAceToFive());
+        assertThat(pair.evaluateEightOrBetter()).isEqualTo(-1);
+    }
+
+    @Test
+    void eightOrBetter() {
+        var eight = Hand.of(
+            ACE.of(CLUBS),
+            TWO.of(DIAMONDS),
+            THREE.of(HEARTS),
+            FOUR.of(SPADES),
+            EIGHT.of(CLUBS),
+            KING.of(CLUBS),
+            KING.of(DIAMONDS)
+        );
+        var nine = Hand.of(
+            ACE.of(CLUBS),
+            TWO.of(DIAMONDS),
+            THREE.of(HEARTS),
+            FOUR.of(SPADES),
+            NINE.of(CLUBS),
+            KING.of(CLUBS),
+            KING.of(DIAMONDS)
+        );
+        assertThat(eight.evaluateEightOrBetter()).isEqualTo(~0b0000_0000000000000_0000010001111 & 0x3FFF_FFFF);
+        assertThat(nine.evaluateEightOrBetter()).isEqualTo(-1);
+        assertThat(nine.evaluateAceToFive()).isLessThan(eight.evaluateAceToFive());
+    }
+
+    @Test
+    void deuceToSeven() {
+        var sevenFive = Hand.of(
+            SEVEN.of(CLUBS),
+            FIVE.of(DIAMONDS),
+            FOUR.of(HEARTS),
+            THREE.of(SPADES),
+            TWO.of(CLUBS)
+        );
+        var wheel = Hand.of(
+            ACE.of(CLUBS),
+            FIVE.of(DIAMONDS),
+            FOUR.of(HEARTS),
+            THREE.of(SPADES),
+            TWO.of(CLUBS)
+        );
+        var straight = Hand.of(
+            SIX.of(CLUBS),
+            FIVE.of(DIAMONDS),
+            FOUR.of(HEARTS),
+            THREE.of(SPADES),
+            TWO.of(CLUBS)
+        );
+        assertThat(sevenFive.evaluateDeuceToSeven()).isEqualTo(~0b0000_0000000000000_0000000101111 & 0x3FFF_FFFF);
+        assertThat(wheel.evaluateDeuceToSeven()).isEqualTo(~0b0000_0000000000000_1000000001111 & 0x3FFF_FFFF);
+        assertThat(sevenFive.evaluateDeuceToSeven()).isGreaterThan(wheel.evaluateDeuceToSeven());
+        assertThat(wheel.evaluateDeuceToSeven()).isGreaterThan(straight.evaluateDeuceToSeven());
+        assertThat(wheel.add(KING.of(HEARTS)).evaluateDeuceToSeven()).isEqualTo(-1);
+    }
 }
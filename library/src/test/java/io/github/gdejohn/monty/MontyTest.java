@@ -1,18 +1,33 @@
 package io.github.gdejohn.monty;
 
 import io.github.gdejohn.monty.Deck.Generator;
+import io.github.gdejohn.monty.Monty.Out;
 import io.github.gdejohn.monty.Monty.Showdown;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+
 import static io.github.gdejohn.monty.Card.Rank.ACE;
 import static io.github.gdejohn.monty.Card.Rank.EIGHT;
+import static io.github.gdejohn.monty.Card.Rank.FOUR;
+import static io.github.gdejohn.monty.Card.Rank.JACK;
+import static io.github.gdejohn.monty.Card.Rank.KING;
 import static io.github.gdejohn.monty.Card.Rank.NINE;
+import static io.github.gdejohn.monty.Card.Rank.QUEEN;
 import static io.github.gdejohn.monty.Card.Rank.SEVEN;
+import static io.github.gdejohn.monty.Card.Rank.SIX;
 import static io.github.gdejohn.monty.Card.Rank.TEN;
+import static io.github.gdejohn.monty.Card.Rank.THREE;
+import static io.github.gdejohn.monty.Card.Rank.TWO;
 import static io.github.gdejohn.monty.Card.Suit.CLUBS;
+import static io.github.gdejohn.monty.Card.Suit.DIAMONDS;
 import static io.github.gdejohn.monty.Card.Suit.HEARTS;
+import static io.github.gdejohn.monty.Card.Suit.SPADES;
+import static org.assertj.core.api.Assertions.as;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.api.InstanceOfAssertFactories.DOUBLE;
 
 class MontyTest {
     private static final byte[] seed = {
@@ -36,13 +51,291 @@ class MontyTest {
 
     @Test
     void equity() {
-        assertThat(showdown().equity()).isCloseTo(0.5228d, within(0.0001d));
+        assertThat(showdown().equity()).isCloseTo(0.5224d, within(0.0001d));
+    }
+
+    @Test
+    void trials() {
+        var monty = Monty.pocket(EIGHT.of(CLUBS), NINE.of(CLUBS)).players(3);
+        assertThat(monty.limit(0).trials()).isZero();
+        assertThat(monty.limit(1).trials()).isEqualTo(1);
+        assertThat(monty.limit(12_345).trials()).isEqualTo(12_345);
+        assertThatThrownBy(() -> monty.limit(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void plus() {
+        var monty = Monty.pocket(EIGHT.of(CLUBS), NINE.of(CLUBS))
+                         .flop(SEVEN.of(CLUBS), TEN.of(CLUBS), ACE.of(HEARTS))
+                         .players(4)
+                         .rng(new Generator(seed));
+        var first = monty.limit(1 << 14);
+        var second = monty.limit(1 << 14);
+        var sum = first.plus(second);
+        assertThat(sum.trials()).isEqualTo(1 << 15);
+        assertThat(sum.equity()).isCloseTo(
+            (first.equity() + second.equity()) / 2,
+            within(1e-12d)
+        );
+        assertThat(sum.error()).isCloseTo(first.error() / Math.sqrt(2), within(0.0001d));
+        assertThat(first.trials()).isEqualTo(1 << 14);
+        assertThatThrownBy(() -> first.plus(monty.players(3).limit(1))).isInstanceOf(
+            IllegalArgumentException.class
+        );
+    }
+
+    @Test
+    void parse() {
+        assertThat(Card.parse("Ah7c")).containsExactly(ACE.of(HEARTS), SEVEN.of(CLUBS));
+        assertThat(Card.parse("aH7C")).containsExactly(ACE.of(HEARTS), SEVEN.of(CLUBS));
+        assertThat(Card.parse("")).isEmpty();
+        assertThatThrownBy(() -> Card.parse("Ah7")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Card.parse("1c")).isInstanceOf(IllegalArgumentException.class);
+        var preflop = Monty.pocket(EIGHT.of(CLUBS), NINE.of(CLUBS));
+        assertThat(preflop.board(Card.parse(""))).isSameAs(preflop);
+        assertThat(preflop.board(Card.parse("7cTcAh"))).isInstanceOf(Monty.Flop.class);
+        assertThat(preflop.board(Card.parse("7cTcAh2d"))).isInstanceOf(Monty.Turn.class);
+        assertThat(preflop.board(Card.parse("7cTcAh2d3s"))).isInstanceOf(Monty.River.class);
+        assertThat(
+            preflop.game("short-deck").board(Card.parse("7cTcAh")).players(4).rng(
+                new Generator(seed)
+            ).limit(1 << 20).equity()
+        ).isCloseTo(0.5036d, within(0.0001d));
+        assertThatThrownBy(
+            () -> preflop.board(Card.parse("7cTc"))
+        ).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(
+            () -> preflop.game("stud")
+        ).isInstanceOf(IllegalArgumentException.class);
     }
 
     @Test
     void expectedValue() {
         int pot = 100;
         int raise = 50;
-        assertThat(showdown().expectedValue(pot, raise)).isCloseTo(1.568d, within(0.001d));
+        assertThat(showdown().expectedValue(pot, raise)).isCloseTo(1.567d, within(0.001d));
+    }
+
+    @Test
+    void shortDeck() {
+        var showdown = Monty.pocket(EIGHT.of(CLUBS), NINE.of(CLUBS))
+                            .shortDeck()
+                            .flop(SEVEN.of(CLUBS), TEN.of(CLUBS), ACE.of(HEARTS))
+                            .players(4)
+                            .rng(new Generator(seed))
+                            .limit(1 << 20);
+        assertThat(showdown.equity()).isCloseTo(0.5036d, within(0.0001d));
+    }
+
+    @Test
+    void shortDeckLowCards() {
+        var preflop = Monty.pocket(EIGHT.of(CLUBS), NINE.of(CLUBS)).shortDeck();
+        assertThatThrownBy(
+            () -> preflop.flop(SEVEN.of(CLUBS), TEN.of(CLUBS), TWO.of(HEARTS))
+        ).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> preflop.players(16)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void hiLo() {
+        var showdown = Monty.pocket(ACE.of(DIAMONDS), TWO.of(DIAMONDS))
+                            .hiLo()
+                            .flop(THREE.of(CLUBS), SEVEN.of(HEARTS), KING.of(DIAMONDS))
+                            .players(3)
+                            .rng(new Generator(seed))
+                            .limit(1 << 20);
+        assertThat(showdown.equity()).isCloseTo(0.4642d, within(0.0001d));
+        assertThat(showdown.scoops()).isCloseTo(0.2099d, within(0.0001d));
+        assertThat(showdown.highHalves()).isCloseTo(0.0351d, within(0.0001d));
+        assertThat(showdown.lowHalves()).isCloseTo(0.4211d, within(0.0001d));
+        assertThat(showdown.lowQuarters()).isCloseTo(0.0248d, within(0.0001d));
+    }
+
+    @Test
+    void deadline() {
+        var monty = Monty.pocket(EIGHT.of(CLUBS), NINE.of(CLUBS))
+                         .flop(SEVEN.of(CLUBS), TEN.of(CLUBS), ACE.of(HEARTS))
+                         .players(4);
+        long start = System.nanoTime();
+        var showdown = monty.within(Duration.ofMillis(200));
+        long elapsed = System.nanoTime() - start;
+        assertThat(Duration.ofNanos(elapsed)).isBetween(
+            Duration.ofMillis(200),
+            Duration.ofSeconds(10)
+        );
+        assertThat(showdown.equity()).isCloseTo(0.523d, within(4 * showdown.error()));
+        assertThat(monty.within(Duration.ZERO).trials()).isPositive();
+        assertThatThrownBy(
+            () -> monty.within(Duration.ofMillis(-1))
+        ).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void matchup() {
+        var aces = Monty.pocket(ACE.of(SPADES), ACE.of(HEARTS));
+        assertThat(aces.equity(KING.of(DIAMONDS), KING.of(CLUBS))).isCloseTo(
+            0.812555d,
+            within(0.000001d)
+        );
+        var kings = Monty.pocket(KING.of(DIAMONDS), KING.of(CLUBS));
+        assertThat(kings.equity(ACE.of(SPADES), ACE.of(HEARTS))).isCloseTo(
+            0.187445d,
+            within(0.000001d)
+        );
+        var suited = Monty.pocket(ACE.of(SPADES), KING.of(SPADES));
+        assertThat(suited.equity(QUEEN.of(HEARTS), QUEEN.of(DIAMONDS))).isCloseTo(
+            0.462145d,
+            within(0.000001d)
+        );
+        assertThatThrownBy(
+            () -> aces.equity(ACE.of(SPADES), KING.of(CLUBS))
+        ).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(
+            () -> aces.players(3).equity(KING.of(DIAMONDS), KING.of(CLUBS))
+        ).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void flopOuts() {
+        var flop = Monty.pocket(EIGHT.of(CLUBS), NINE.of(CLUBS))
+                        .flop(SEVEN.of(CLUBS), TEN.of(CLUBS), ACE.of(HEARTS));
+        var outs = flop.outs();
+        assertThat(outs).hasSize(47);
+        assertThat(outs).extracting(Out::card).doesNotContain(SEVEN.of(CLUBS), NINE.of(CLUBS));
+        // every turn is equally likely, so the average is the equity on the flop
+        assertThat(outs.stream().mapToDouble(Out::equity).average().orElseThrow()).isCloseTo(
+            0.675885d,
+            within(0.000001d)
+        );
+        assertThat(outs).filteredOn(out -> out.card().equals(SIX.of(CLUBS))).singleElement()
+                        .isEqualTo(new Out(SIX.of(CLUBS), Category.STRAIGHT_FLUSH, 1, 0));
+        var multiway = flop.players(3).rng(new Generator(seed)).outs();
+        assertThat(multiway).extracting(Out::card).isEqualTo(outs.stream().map(Out::card).toList());
+        assertThat(multiway).extracting(Out::category).isEqualTo(
+            outs.stream().map(Out::category).toList()
+        );
+        assertThat(multiway).isEqualTo(flop.players(3).rng(new Generator(seed)).outs());
+        var threeWay = flop.players(3).limit(1 << 20);
+        assertThat(multiway.stream().mapToDouble(Out::equity).average().orElseThrow()).isCloseTo(
+            threeWay.equity(),
+            within(0.005d)
+        );
+        for (var out : flop.outs(1 << 16)) {
+            var exact = outs.stream().filter(o -> o.card().equals(out.card())).findFirst();
+            assertThat(out.equity()).isCloseTo(
+                exact.orElseThrow().equity(),
+                within(5 * out.error() + 1e-9d)
+            );
+        }
+        assertThatThrownBy(() -> flop.outs(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void turnOuts() {
+        var turn = Monty.pocket(EIGHT.of(CLUBS), NINE.of(CLUBS))
+                        .flop(SEVEN.of(CLUBS), TEN.of(CLUBS), ACE.of(HEARTS))
+                        .turn(TWO.of(DIAMONDS));
+        var outs = turn.outs();
+        assertThat(outs).hasSize(46);
+        assertThat(outs).filteredOn(out -> out.category() == Category.STRAIGHT).extracting(
+            Out::card
+        ).containsExactly(
+            SIX.of(DIAMONDS),
+            JACK.of(DIAMONDS),
+            SIX.of(HEARTS),
+            JACK.of(HEARTS),
+            SIX.of(SPADES),
+            JACK.of(SPADES)
+        );
+        assertThat(outs).filteredOn(out -> out.card().equals(THREE.of(SPADES))).singleElement()
+                        .extracting(Out::equity, as(DOUBLE)).isCloseTo(0.1096d, within(0.0001d));
+        var hiLo = Monty.pocket(ACE.of(CLUBS), TWO.of(CLUBS))
+                        .hiLo()
+                        .flop(SEVEN.of(CLUBS), THREE.of(DIAMONDS), KING.of(HEARTS))
+                        .turn(FOUR.of(SPADES))
+                        .outs();
+        assertThat(hiLo).hasSize(46).allSatisfy(out -> assertThat(out.error()).isPositive());
+    }
+
+    @Test
+    void riverEquity() {
+        var turn = Monty.pocket(EIGHT.of(CLUBS), NINE.of(CLUBS))
+                        .flop(SEVEN.of(CLUBS), TEN.of(CLUBS), ACE.of(HEARTS))
+                        .turn(TWO.of(DIAMONDS));
+        var river = turn.river(THREE.of(SPADES));
+        assertThat(river.equity()).isCloseTo(108.5d / 990, within(1e-12d));
+        for (var out : turn.outs()) {
+            assertThat(turn.river(out.card()).equity()).isCloseTo(out.equity(), within(1e-12d));
+        }
+        var range = new double[Hand.combinations(2)];
+        range[Hand.of(ACE.of(SPADES), KING.of(SPADES)).rank()] = 3;
+        range[Hand.of(SIX.of(DIAMONDS), FOUR.of(DIAMONDS)).rank()] = 1;
+        range[Hand.of(EIGHT.of(CLUBS), KING.of(SPADES)).rank()] = 5; // blocked by the hero
+        assertThat(river.equity(range)).isCloseTo(0.25d, within(1e-12d));
+        double[] equities = river.equities(range);
+        assertThat(equities[Hand.of(KING.of(SPADES), SIX.of(DIAMONDS)).rank()]).isNaN();
+        assertThat(equities[Hand.of(SEVEN.of(CLUBS), KING.of(SPADES)).rank()]).isNaN();
+        assertThat(equities[Hand.of(ACE.of(CLUBS), ACE.of(DIAMONDS)).rank()]).isEqualTo(1);
+        range = new double[Hand.combinations(2)];
+        range[Hand.of(EIGHT.of(CLUBS), KING.of(SPADES)).rank()] = 1;
+        var blocked = range;
+        assertThatThrownBy(() -> river.equity(blocked)).isInstanceOf(
+            IllegalArgumentException.class
+        );
+        assertThatThrownBy(() -> river.players(3).equity()).isInstanceOf(
+            IllegalArgumentException.class
+        );
+        assertThatThrownBy(() -> river.equities(new double[2])).isInstanceOf(
+            IllegalArgumentException.class
+        );
+    }
+
+    @Test
+    void breakdown() {
+        var flop = Monty.pocket(EIGHT.of(CLUBS), NINE.of(CLUBS))
+                        .flop(SEVEN.of(CLUBS), TEN.of(CLUBS), ACE.of(HEARTS));
+        var breakdown = flop.players(4).rng(new Generator(seed)).breakdown(1 << 20);
+        assertThat(breakdown.marginal().trials()).isEqualTo(1 << 20);
+        assertThat(breakdown.marginal().equity()).isEqualTo(showdown().equity());
+        var headsUp = flop.rng(new Generator(seed)).breakdown(1 << 20);
+        for (var out : flop.outs()) {
+            var showdown = headsUp.given(out.card());
+            assertThat(showdown.equity()).isCloseTo(
+                out.equity(),
+                within(4 * showdown.error() + 1e-9d)
+            );
+        }
+        assertThatThrownBy(() -> headsUp.given(ACE.of(HEARTS))).isInstanceOf(
+            IllegalArgumentException.class
+        );
+    }
+
+    @Test
+    void curve() {
+        var flop = Monty.pocket(EIGHT.of(CLUBS), NINE.of(CLUBS))
+                        .flop(SEVEN.of(CLUBS), TEN.of(CLUBS), ACE.of(HEARTS));
+        var curve = flop.players(6).rng(new Generator(seed)).curve(1 << 20);
+        assertThat(curve).hasSize(5);
+        assertThat(
+            flop.players(4).rng(new Generator(seed)).curve(1 << 20).getLast().equity()
+        ).isEqualTo(showdown().equity());
+        var rng = new Generator(seed).split();
+        for (int players = 2; players <= 6; players++) {
+            var showdown = curve.get(players - 2);
+            var separate = flop.players(players).rng(rng.split()).limit(1 << 20);
+            assertThat(showdown.trials()).isEqualTo(1 << 20);
+            assertThat(showdown.equity()).isCloseTo(
+                separate.equity(),
+                within(4 * Math.hypot(showdown.error(), separate.error()))
+            );
+        }
+        var hiLo = Monty.pocket(ACE.of(CLUBS), TWO.of(CLUBS))
+                        .hiLo()
+                        .flop(SEVEN.of(CLUBS), THREE.of(DIAMONDS), KING.of(HEARTS))
+                        .players(5);
+        assertThat(hiLo.rng(new Generator(seed)).curve(1 << 16).getLast().scoops()).isEqualTo(
+            hiLo.rng(new Generator(seed)).limit(1 << 16).scoops()
+        );
+        assertThatThrownBy(() -> flop.curve(-1)).isInstanceOf(IllegalArgumentException.class);
     }
 }
@@ -0,0 +1,107 @@
+package io.github.gdejohn.monty;
+
+import io.github.gdejohn.monty.Deck.Generator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static io.github.gdejohn.monty.Card.Rank.ACE;
+import static io.github.gdejohn.monty.Card.Rank.EIGHT;
+import static io.github.gdejohn.monty.Card.Rank.KING;
+import static io.github.gdejohn.monty.Card.Rank.NINE;
+import static io.github.gdejohn.monty.Card.Rank.SEVEN;
+import static io.github.gdejohn.monty.Card.Rank.TEN;
+import static io.github.gdejohn.monty.Card.Rank.THREE;
+import static io.github.gdejohn.monty.Card.Rank.TWO;
+import static io.github.gdejohn.monty.Card.Suit.CLUBS;
+import static io.github.gdejohn.monty.Card.Suit.DIAMONDS;
+import static io.github.gdejohn.monty.Card.Suit.HEARTS;
+import static io.github.gdejohn.monty.Card.Suit.SPADES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class SidePotsTest {
+    private static final SidePots flop = SidePots.board(
+        SEVEN.of(CLUBS),
+        TEN.of(CLUBS),
+        ACE.of(HEARTS)
+    );
+
+    @Test
+    void sidePots() {
+        var pots = flop.player(EIGHT.of(CLUBS), NINE.of(CLUBS), 100)
+                       .player(ACE.of(SPADES), KING.of(SPADES), 300)
+                       .player(SEVEN.of(HEARTS), SEVEN.of(DIAMONDS), 500);
+        double[] chips = pots.exact();
+        assertThat(chips).containsExactly(new double[] {130.565, 24.806, 744.629}, within(0.001d));
+        // every chip is accounted for, including the 200 returned to the largest stack
+        assertThat(Arrays.stream(chips).sum()).isCloseTo(900, within(1e-9d));
+        assertThat(Arrays.stream(pots.dead(50).exact()).sum()).isCloseTo(950, within(1e-9d));
+        assertThat(pots.chips(1 << 20)).isEqualTo(chips);
+        assertThat(pots.rng(new Generator(new byte[32])).simulate(1 << 20)).containsExactly(
+            chips,
+            within(1d)
+        );
+    }
+
+    @Test
+    void headsUp() {
+        var pots = flop.player(EIGHT.of(CLUBS), NINE.of(CLUBS), 50)
+                       .player(ACE.of(SPADES), KING.of(SPADES), 80);
+        double equity = 0.553535d;
+        assertThat(pots.exact()).containsExactly(
+            new double[] {100 * equity, 100 * (1 - equity) + 30},
+            within(0.0001d)
+        );
+        assertThat(pots.dead(30).exact()).containsExactly(
+            new double[] {130 * equity, 130 * (1 - equity) + 30},
+            within(0.0001d)
+        );
+    }
+
+    @Test
+    void preflop() {
+        var pots = SidePots.board()
+                           .player(ACE.of(SPADES), ACE.of(HEARTS), 100)
+                           .player(KING.of(DIAMONDS), KING.of(CLUBS), 100);
+        assertThat(pots.exact()).containsExactly(
+            new double[] {200 * 0.812555d, 200 * 0.187445d},
+            within(0.0001d)
+        );
+    }
+
+    @Test
+    void river() {
+        var river = SidePots.board(
+            SEVEN.of(CLUBS),
+            TEN.of(CLUBS),
+            ACE.of(HEARTS),
+            TWO.of(DIAMONDS),
+            THREE.of(SPADES)
+        );
+        var pots = river.player(EIGHT.of(CLUBS), NINE.of(CLUBS), 100)
+                        .player(ACE.of(SPADES), KING.of(SPADES), 300)
+                        .player(ACE.of(DIAMONDS), KING.of(DIAMONDS), 300);
+        assertThat(pots.exact()).containsExactly(0, 350, 350);
+    }
+
+    @Test
+    void invalid() {
+        var pots = flop.player(EIGHT.of(CLUBS), NINE.of(CLUBS), 100);
+        assertThatThrownBy(() -> SidePots.board(ACE.of(SPADES))).isInstanceOf(
+            IllegalArgumentException.class
+        );
+        assertThatThrownBy(() -> pots.player(NINE.of(CLUBS), TWO.of(CLUBS), 100)).isInstanceOf(
+            IllegalArgumentException.class
+        );
+        assertThatThrownBy(() -> pots.player(ACE.of(HEARTS), TWO.of(CLUBS), 100)).isInstanceOf(
+            IllegalArgumentException.class
+        );
+        assertThatThrownBy(() -> pots.player(TWO.of(CLUBS), THREE.of(CLUBS), 0)).isInstanceOf(
+            IllegalArgumentException.class
+        );
+        assertThatThrownBy(pots::exact).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pots.dead(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
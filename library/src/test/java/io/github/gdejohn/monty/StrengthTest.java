@@ -0,0 +1,71 @@
+package io.github.gdejohn.monty;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static io.github.gdejohn.monty.Card.Rank.FIVE;
+import static io.github.gdejohn.monty.Card.Rank.FOUR;
+import static io.github.gdejohn.monty.Card.Rank.SEVEN;
+import static io.github.gdejohn.monty.Card.Rank.THREE;
+import static io.github.gdejohn.monty.Card.Rank.TWO;
+import static io.github.gdejohn.monty.Card.Suit.CLUBS;
+import static io.github.gdejohn.monty.Card.Suit.DIAMONDS;
+import static io.github.gdejohn.monty.Card.Suit.HEARTS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StrengthTest {
+    @Test
+    void bijection() {
+        int[] values = IntStream.range(0, Strength.COUNT).map(Strength::value).toArray();
+        assertThat(values).isSorted().doesNotHaveDuplicates();
+        assertThat(
+            IntStream.range(0, Strength.COUNT).filter(
+                strength -> Strength.of(values[strength]) != strength
+            )
+        ).isEmpty();
+    }
+
+    @Test
+    void categories() {
+        var counts = new int[Category.values().length];
+        for (int strength = 0; strength < Strength.COUNT; strength++) {
+            counts[Category.of(Strength.value(strength)).ordinal()]++;
+        }
+        assertThat(counts).containsExactly(
+            Arrays.stream(Category.values()).mapToInt(category -> category.classes).toArray()
+        );
+    }
+
+    @Test
+    void sevenCards() {
+        var deck = new Deck();
+        for (int trial = 0; trial < 100_000; trial++) {
+            deck.shuffle();
+            var hand = Hand.empty();
+            for (int n = 0; n < 7; n++) {
+                hand = hand.add(deck.deal());
+            }
+            assertThat(Strength.value(Strength.of(hand.evaluate()))).isEqualTo(hand.evaluate());
+        }
+    }
+
+    @Test
+    void invalid() {
+        // seven high is impossible with seven cards
+        var hand = Hand.of(
+            TWO.of(CLUBS),
+            THREE.of(DIAMONDS),
+            FOUR.of(CLUBS),
+            FIVE.of(HEARTS),
+            SEVEN.of(CLUBS)
+        );
+        assertThat(Strength.of(hand.evaluatePartial())).isEqualTo(-1);
+        assertThat(Strength.of(-1)).isEqualTo(-1);
+        assertThatThrownBy(
+            () -> Strength.value(Strength.COUNT)
+        ).isInstanceOf(IllegalArgumentException.class);
+    }
+}
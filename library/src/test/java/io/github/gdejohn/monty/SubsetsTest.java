@@ -0,0 +1,91 @@
+package io.github.gdejohn.monty;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Spliterator;
+import java.util.stream.StreamSupport;
+
+import static io.github.gdejohn.monty.Card.Rank.ACE;
+import static io.github.gdejohn.monty.Card.Rank.KING;
+import static io.github.gdejohn.monty.Card.Rank.SEVEN;
+import static io.github.gdejohn.monty.Card.Rank.TEN;
+import static io.github.gdejohn.monty.Card.Suit.CLUBS;
+import static io.github.gdejohn.monty.Card.Suit.HEARTS;
+import static io.github.gdejohn.monty.Card.Suit.SPADES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SubsetsTest {
+    private static final Hand deck = Hand.of(Card.all().toArray(Card[]::new));
+
+    @Test
+    void colex() {
+        for (int size = 0; size <= 7; size++) {
+            var subsets = Subsets.of(deck, size);
+            assertThat(subsets.estimateSize()).isEqualTo(Hand.combinations(size));
+            int[] rank = {0};
+            subsets.forEachRemaining((long cards) -> {
+                assertThat(Hand.rank(cards)).isEqualTo(rank[0]++);
+            });
+            assertThat(rank[0]).isEqualTo(Hand.combinations(size));
+        }
+    }
+
+    @Test
+    void parallel() {
+        var hand = Hand.of(ACE.of(SPADES), KING.of(SPADES), SEVEN.of(CLUBS), TEN.of(CLUBS));
+        var cards = Hand.of(Card.all().filter(card -> !hand.contains(card)).toArray(Card[]::new));
+        assertThat(Subsets.of(cards, 26).estimateSize()).isEqualTo(27_385_657_281_648L);
+        assertThat(Subsets.of(cards, 5).stream().parallel().toArray()).isEqualTo(
+            Subsets.of(cards, 5).stream().toArray()
+        );
+        assertThat(Subsets.of(cards, 5).stream().parallel().distinct().count()).isEqualTo(
+            1_712_304
+        );
+    }
+
+    @Test
+    void split() {
+        var subsets = Subsets.of(deck, 3);
+        var prefix = subsets.trySplit();
+        assertThat(prefix.estimateSize() + subsets.estimateSize()).isEqualTo(22_100);
+        long[] first = {0L};
+        subsets.tryAdvance((long cards) -> first[0] = cards);
+        assertThat(Hand.rank(first[0])).isEqualTo(11_050);
+        var single = Subsets.of(deck, 52);
+        assertThat(single.trySplit()).isNull();
+        assertThat(single.stream().toArray()).containsExactly(deck.mask());
+    }
+
+    @Test
+    void hands() {
+        var board = Hand.of(SEVEN.of(CLUBS), TEN.of(CLUBS), ACE.of(HEARTS));
+        var cards = Hand.of(Card.all().filter(card -> !board.contains(card)).toArray(Card[]::new));
+        Spliterator<Hand> hands = Subsets.of(cards, 2).hands(board);
+        assertThat(StreamSupport.stream(hands, true).map(Hand::mask).toList()).isEqualTo(
+            Subsets.of(cards, 2).stream().map(runout -> runout | board.mask()).boxed().toList()
+        );
+        assertThat(Subsets.of(cards, 2).stream(board).map(Hand::evaluate).toList()).isEqualTo(
+            Subsets.of(cards, 2).stream().mapToObj(runout -> board.add(
+                Card.of(Long.numberOfTrailingZeros(runout))
+            ).add(
+                Card.of(63 - Long.numberOfLeadingZeros(runout))
+            ).evaluate()).toList()
+        );
+        assertThat(Subsets.of(cards, 0).stream(board).toList()).containsExactly(board);
+    }
+
+    @Test
+    void invalid() {
+        var hand = Hand.of(ACE.of(SPADES), KING.of(SPADES));
+        assertThatThrownBy(() -> Subsets.of(hand, 3)).isInstanceOf(
+            IllegalArgumentException.class
+        );
+        assertThatThrownBy(() -> Subsets.of(hand, -1)).isInstanceOf(
+            IllegalArgumentException.class
+        );
+        assertThatThrownBy(() -> Subsets.of(deck, 2).hands(hand)).isInstanceOf(
+            IllegalArgumentException.class
+        );
+    }
+}
@@ -0,0 +1,262 @@
+package io.github.gdejohn.monty.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.gdejohn.monty.Card;
+import io.github.gdejohn.monty.Monty;
+import io.github.gdejohn.monty.Monty.Showdown;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/// A small HTTP service that estimates equity for spots posted to it as JSON.
+///
+/// Each request is a JSON object like
+/// `{"pocket": "8c9c", "board": "7cTcAh", "players": 4, "trials": 1000000, "timeout": 500}`,
+/// where the board, the number of players (2 by default), the number of trials, and the timeout
+/// in milliseconds are optional, along with the game (`"holdem"` by default, `"short-deck"`, or
+/// `"hi-lo"`). The response is a JSON object with the estimated equity, its standard error, and
+/// the number of trials actually run.
+///
+/// Requests are read and written on virtual threads, but simulations run on a pool with a fixed
+/// number of platform threads, so that a burst of requests queues for the CPU instead of
+/// oversubscribing it. Every request is subject to a trial budget and a timeout. Trials run in
+/// chunks, and a simulation that reaches its deadline stops after the current chunk and reports
+/// what it has so far. A request that is still waiting for the pool when it times out is
+/// abandoned with status 503.
+public final class EquityService implements AutoCloseable {
+    /// The number of trials between checks of the deadline.
+    private static final long CHUNK = 1 << 16;
+
+    /// The fewest trials that a request may ask for, since the standard error is undefined for
+    /// a single trial.
+    private static final long MIN_TRIALS = 2;
+
+    private final HttpServer server;
+
+    private final ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final ForkJoinPool simulations;
+
+    /// The most trials that a single request may ask for.
+    private final long budget;
+
+    /// The longest that a single request may take.
+    private final Duration timeout;
+
+    /// Bind a new service to the given address, running at most the given number of simulation
+    /// threads.
+    public EquityService(
+        InetSocketAddress address,
+        int parallelism,
+        long budget,
+        Duration timeout
+    ) throws IOException {
+        if (budget < MIN_TRIALS) {
+            throw new IllegalArgumentException(
+                "budget = %d (must be at least %d)".formatted(budget, MIN_TRIALS)
+            );
+        } else if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException(
+                "timeout = %s (must be positive)".formatted(timeout)
+            );
+        }
+        this.simulations = new ForkJoinPool(parallelism);
+        this.budget = budget;
+        this.timeout = timeout;
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(requests);
+        server.createContext("/equity", this::handle);
+    }
+
+    /// Run the service until the process is killed.
+    ///
+    /// Usage: `EquityService [port [parallelism [budget [timeout]]]]`, with the timeout in
+    /// milliseconds. By default, the service listens on port 8080, simulates on every available
+    /// processor, and allows up to ten million trials and ten seconds per request.
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int parallelism = args.length > 1
+            ? Integer.parseInt(args[1])
+            : Runtime.getRuntime().availableProcessors();
+        long budget = args.length > 2 ? Long.parseLong(args[2]) : 10_000_000;
+        var timeout = Duration.ofMillis(args.length > 3 ? Long.parseLong(args[3]) : 10_000);
+        var service = new EquityService(new InetSocketAddress(port), parallelism, budget, timeout);
+        service.start();
+        System.out.printf("listening on http://localhost:%d/equity%n", service.address().getPort());
+    }
+
+    /// Start accepting requests.
+    public void start() {
+        server.start();
+    }
+
+    /// The address that the service is bound to.
+    public InetSocketAddress address() {
+        return server.getAddress();
+    }
+
+    /// Stop accepting requests and abandon any simulations in progress.
+    ///
+    /// The simulations are cancelled first, so that requests waiting for them are answered with
+    /// status 503 right away instead of holding up the shutdown until they finish.
+    @Override
+    public void close() {
+        simulations.shutdownNow();
+        server.stop(1); // returns as soon as the cancelled requests have been answered
+        requests.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            long start = System.nanoTime();
+            if (!exchange.getRequestMethod().equals("POST")) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                respond(exchange, 405, Map.of(
+                    "error",
+                    "method = %s (must be POST)".formatted(exchange.getRequestMethod())
+                ));
+                return;
+            }
+            Map<String, String> query;
+            Monty monty;
+            long trials, deadline;
+            try {
+                query = Json.parse(new String(exchange.getRequestBody().readAllBytes(), UTF_8));
+                monty = monty(query);
+                trials = parameter(query, "trials", Math.min(1 << 20, budget), MIN_TRIALS, budget);
+                deadline = start + Duration.ofMillis(
+                    parameter(query, "timeout", timeout.toMillis(), 1, timeout.toMillis())
+                ).toNanos();
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, Map.of("error", e.getMessage()));
+                return;
+            }
+            var started = new AtomicBoolean();
+            Future<Showdown> simulation;
+            try {
+                simulation = simulations.submit(
+                    () -> started.compareAndSet(false, true)
+                        ? simulate(monty, trials, deadline)
+                        : null
+                );
+            } catch (RejectedExecutionException e) {
+                respond(exchange, 503, Map.of("error", "shutting down"));
+                return;
+            }
+            Showdown showdown;
+            try {
+                try {
+                    showdown = simulation.get(deadline - System.nanoTime(), NANOSECONDS);
+                } catch (TimeoutException e) {
+                    if (started.compareAndSet(false, true)) {
+                        respond(exchange, 503, Map.of("error", "timed out waiting to simulate"));
+                        return;
+                    }
+                    showdown = simulation.get(); // stops after the current chunk
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                respond(exchange, 503, Map.of("error", "interrupted"));
+                return;
+            } catch (CancellationException e) {
+                respond(exchange, 503, Map.of("error", "shutting down"));
+                return;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof CancellationException) {
+                    respond(exchange, 503, Map.of("error", "shutting down"));
+                } else {
+                    respond(exchange, 500, Map.of("error", String.valueOf(e.getCause())));
+                }
+                return;
+            }
+            var response = new LinkedHashMap<String, Object>();
+            response.put("equity", showdown.equity());
+            response.put("error", showdown.error());
+            response.put("trials", showdown.trials());
+            response.put("millis", Duration.ofNanos(System.nanoTime() - start).toMillis());
+            respond(exchange, 200, response);
+        }
+    }
+
+    private static void respond(
+        HttpExchange exchange,
+        int status,
+        Map<String, ?> body
+    ) throws IOException {
+        byte[] bytes = Json.write(body).getBytes(UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    /// Run trials in chunks until the given number of trials have run, the deadline passes, or
+    /// the simulation is cancelled.
+    private static Showdown simulate(Monty monty, long trials, long deadline) {
+        var showdown = monty.limit(Math.min(CHUNK, trials));
+        while (showdown.trials() < trials && System.nanoTime() < deadline) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("shutting down");
+            }
+            showdown = showdown.plus(monty.limit(Math.min(CHUNK, trials - showdown.trials())));
+        }
+        return showdown;
+    }
+
+    /// An integer parameter with a default and lower and upper bounds.
+    private static long parameter(
+        Map<String, String> query,
+        String name,
+        long fallback,
+        long min,
+        long max
+    ) {
+        if (!query.containsKey(name)) {
+            return fallback;
+        }
+        long value = Long.parseLong(query.get(name));
+        if (value < min || value > max) {
+            throw new IllegalArgumentException(
+                "%s = %d (must be at least %d and no greater than %d)".formatted(
+                    name,
+                    value,
+                    min,
+                    max
+                )
+            );
+        }
+        return value;
+    }
+
+    /// Build the spot described by a request.
+    private static Monty monty(Map<String, String> query) {
+        List<Card> pocket = Card.parse(query.getOrDefault("pocket", ""));
+        if (pocket.size() != 2) {
+            throw new IllegalArgumentException(
+                "pocket = %s (must be two cards)".formatted(query.get("pocket"))
+            );
+        }
+        Monty monty = Monty.pocket(pocket.get(0), pocket.get(1))
+                           .game(query.getOrDefault("game", "holdem"))
+                           .board(Card.parse(query.getOrDefault("board", "")));
+        return query.containsKey("players")
+            ? monty.players(Integer.parseInt(query.get("players")))
+            : monty;
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.gdejohn.monty.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/// Just enough JSON for flat objects whose values are strings or numbers.
+final class Json {
+    private final String text;
+
+    private int position;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /// Parse a flat JSON object, mapping each key to its value, with strings unescaped and numbers
+    /// left as they were written.
+    static Map<String, String> parse(String text) {
+        var json = new Json(text);
+        var object = json.object();
+        json.whitespace();
+        if (json.position != text.length()) {
+            throw json.error("end of input");
+        }
+        return object;
+    }
+
+    /// Write a flat JSON object whose values are strings or numbers.
+    static String write(Map<String, ?> object) {
+        return object.entrySet().stream().map(
+            entry -> quote(entry.getKey()) + ":" + switch (entry.getValue()) {
+                case Number number -> number.toString();
+                case Object value -> quote(value.toString());
+            }
+        ).collect(Collectors.joining(",", "{", "}"));
+    }
+
+    private static String quote(String string) {
+        var quoted = new StringBuilder("\"");
+        for (char c : string.toCharArray()) {
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < ' ') {
+                        quoted.append("\\u%04x".formatted((int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private IllegalArgumentException error(String expected) {
+        return new IllegalArgumentException(
+            "position = %d (expected %s)".formatted(position, expected)
+        );
+    }
+
+    private void whitespace() {
+        while (position < text.length() && " \t\r\n".indexOf(text.charAt(position)) >= 0) {
+            position++;
+        }
+    }
+
+    private void expect(char c) {
+        whitespace();
+        if (position == text.length() || text.charAt(position) != c) {
+            throw error("'" + c + "'");
+        }
+        position++;
+    }
+
+    private boolean skip(char c) {
+        whitespace();
+        if (position < text.length() && text.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private Map<String, String> object() {
+        var object = new LinkedHashMap<String, String>();
+        expect('{');
+        if (skip('}')) {
+            return object;
+        }
+        do {
+            whitespace();
+            String key = string();
+            expect(':');
+            whitespace();
+            if (object.put(key, value()) != null) {
+                throw new IllegalArgumentException("key = %s (must be unique)".formatted(key));
+            }
+        } while (skip(','));
+        expect('}');
+        return object;
+    }
+
+    private String value() {
+        if (position < text.length() && text.charAt(position) == '"') {
+            return string();
+        }
+        int start = position;
+        while (position < text.length() && "+-.0123456789eE".indexOf(text.charAt(position)) >= 0) {
+            position++;
+        }
+        if (start == position) {
+            throw error("string or number");
+        }
+        return text.substring(start, position);
+    }
+
+    private String string() {
+        if (position == text.length() || text.charAt(position) != '"') {
+            throw error("string");
+        }
+        position++;
+        var string = new StringBuilder();
+        while (position < text.length()) {
+            char c = text.charAt(position++);
+            if (c == '"') {
+                return string.toString();
+            } else if (c != '\\') {
+                string.append(c);
+            } else if (position == text.length()) {
+                break;
+            } else {
+                switch (text.charAt(position++)) {
+                    case '"' -> string.append('"');
+                    case '\\' -> string.append('\\');
+                    case '/' -> string.append('/');
+                    case 'b' -> string.append('\b');
+                    case 'f' -> string.append('\f');
+                    case 'n' -> string.append('\n');
+                    case 'r' -> string.append('\r');
+                    case 't' -> string.append('\t');
+                    case 'u' -> {
+                        if (position + 4 > text.length()) {
+                            throw error("four hex digits");
+                        }
+                        try {
+                            string.append((char) Integer.parseInt(
+                                text.substring(position, position += 4),
+                                16
+                            ));
+                        } catch (NumberFormatException e) {
+                            throw error("four hex digits");
+                        }
+                    }
+                    default -> throw error("escape sequence");
+                }
+            }
+        }
+        throw error("'\"'");
+    }
+}
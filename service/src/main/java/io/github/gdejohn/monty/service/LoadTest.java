@@ -0,0 +1,108 @@
+package io.github.gdejohn.monty.service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/// Drive an [equity service][EquityService] with concurrent clients, and report throughput and
+/// latency percentiles.
+///
+/// Usage: `LoadTest [url [clients [seconds [body]]]]`. Each client runs on its own virtual thread
+/// and posts the same request over and over, waiting for each response before sending the next.
+/// Latencies are only recorded after a warm-up of the same length as the measurement. By
+/// default, 32 clients post a 100,000-trial flop spot to `http://localhost:8080/equity` for ten
+/// seconds.
+public final class LoadTest {
+    private static final String SPOT = """
+        {"pocket": "8c9c", "board": "7cTcAh", "players": 4, "trials": 100000}""";
+
+    private LoadTest() {}
+
+    /// The latencies measured by one client, in nanoseconds.
+    private static final class Latencies {
+        private long[] latencies = new long[1024];
+
+        private int size;
+
+        void add(long latency) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latency;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        var uri = URI.create(args.length > 0 ? args[0] : "http://localhost:8080/equity");
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        var duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 10);
+        String body = args.length > 3 ? args[3] : SPOT;
+        var client = HttpClient.newBuilder()
+                               .version(HttpClient.Version.HTTP_1_1)
+                               .executor(Executors.newVirtualThreadPerTaskExecutor())
+                               .build();
+        var request = HttpRequest.newBuilder(uri)
+                                 .header("Content-Type", "application/json")
+                                 .POST(HttpRequest.BodyPublishers.ofString(body))
+                                 .build();
+        long warm = System.nanoTime() + duration.toNanos();
+        long end = warm + duration.toNanos();
+        var errors = new LongAdder();
+        var latencies = new Latencies[clients];
+        var threads = new Thread[clients];
+        for (int i = 0; i < clients; i++) {
+            var measured = latencies[i] = new Latencies();
+            threads[i] = Thread.ofVirtual().start(() -> {
+                for (long now = System.nanoTime(); now < end; ) {
+                    int status;
+                    try {
+                        status = client.send(request, HttpResponse.BodyHandlers.discarding())
+                                       .statusCode();
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    long then = now;
+                    now = System.nanoTime();
+                    if (then >= warm && now < end) {
+                        if (status == 200) {
+                            measured.add(now - then);
+                        } else {
+                            errors.increment();
+                        }
+                    }
+                }
+            });
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        long[] all = Arrays.stream(latencies).flatMapToLong(
+            measured -> Arrays.stream(measured.latencies, 0, measured.size)
+        ).sorted().toArray();
+        System.out.printf(
+            "requests = %d, errors = %d, throughput = %.1f queries/s%n",
+            all.length,
+            errors.sum(),
+            all.length / (duration.toNanos() / 1e9)
+        );
+        if (all.length > 0) {
+            System.out.printf(
+                "p50 = %.2f ms, p90 = %.2f ms, p99 = %.2f ms, max = %.2f ms%n",
+                percentile(all, 0.50),
+                percentile(all, 0.90),
+                percentile(all, 0.99),
+                all[all.length - 1] / 1e6
+            );
+        }
+    }
+
+    /// The nearest-rank percentile of sorted latencies, in milliseconds.
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.max(0, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,6 @@
+/// An HTTP service for estimating equity in Texas hold 'em.
+module io.github.gdejohn.monty.service {
+    requires io.github.gdejohn.monty;
+    requires java.net.http;
+    requires jdk.httpserver;
+}
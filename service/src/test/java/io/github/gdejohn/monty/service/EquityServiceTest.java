@@ -0,0 +1,135 @@
+package io.github.gdejohn.monty.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class EquityServiceTest {
+    private static EquityService service;
+
+    private static final HttpClient client = HttpClient.newBuilder()
+                                                       .version(HttpClient.Version.HTTP_1_1)
+                                                       .build();
+
+    @BeforeAll
+    static void start() throws IOException {
+        var address = new InetSocketAddress("localhost", 0);
+        service = new EquityService(address, 2, 1 << 20, Duration.ofSeconds(30));
+        service.start();
+    }
+
+    @AfterAll
+    static void stop() {
+        service.close();
+    }
+
+    private static HttpResponse<String> post(String body) throws Exception {
+        var uri = URI.create("http://localhost:%d/equity".formatted(service.address().getPort()));
+        var request = HttpRequest.newBuilder(uri)
+                                 .POST(HttpRequest.BodyPublishers.ofString(body))
+                                 .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void equity() throws Exception {
+        var response = post("""
+            {"pocket": "8c9c", "board": "7cTcAh", "players": 4, "trials": 200000}""");
+        assertThat(response.statusCode()).isEqualTo(200);
+        Map<String, String> result = Json.parse(response.body());
+        assertThat(Long.parseLong(result.get("trials"))).isEqualTo(200_000);
+        assertThat(Double.parseDouble(result.get("equity"))).isCloseTo(0.523d, within(0.005d));
+        assertThat(Double.parseDouble(result.get("error"))).isCloseTo(0.001d, within(0.0005d));
+    }
+
+    @Test
+    void badCard() throws Exception {
+        var response = post("""
+            {"pocket": "8c1c"}""");
+        assertThat(response.statusCode()).isEqualTo(400);
+        assertThat(Json.parse(response.body()).get("error")).startsWith("card = 1c");
+    }
+
+    @Test
+    void overBudget() throws Exception {
+        var response = post("""
+            {"pocket": "8c9c", "trials": 2000000}""");
+        assertThat(response.statusCode()).isEqualTo(400);
+        assertThat(Json.parse(response.body()).get("error")).startsWith("trials = 2000000");
+    }
+
+    @Test
+    void fewestTrials() throws Exception {
+        var response = post("""
+            {"pocket": "8c9c", "trials": 1}""");
+        assertThat(response.statusCode()).isEqualTo(400);
+        assertThat(Json.parse(response.body()).get("error")).startsWith("trials = 1 ");
+        response = post("""
+            {"pocket": "8c9c", "trials": 2}""");
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(Double.parseDouble(Json.parse(response.body()).get("error"))).isFinite();
+    }
+
+    @Test
+    void timeout() throws Exception {
+        var response = post("""
+            {"pocket": "8c9c", "players": 9, "trials": 1048576, "timeout": 1}""");
+        if (response.statusCode() == 200) {
+            var trials = Long.parseLong(Json.parse(response.body()).get("trials"));
+            assertThat(trials).isLessThan(1 << 20);
+        } else {
+            assertThat(response.statusCode()).isEqualTo(503);
+        }
+    }
+
+    @Test
+    void close() throws Exception {
+        var address = new InetSocketAddress("localhost", 0);
+        var slow = new EquityService(address, 1, Long.MAX_VALUE, Duration.ofMinutes(10));
+        slow.start();
+        var uri = URI.create("http://localhost:%d/equity".formatted(slow.address().getPort()));
+        var request = HttpRequest.newBuilder(uri)
+                                 .POST(HttpRequest.BodyPublishers.ofString("""
+                                     {"pocket": "8c9c", "players": 9, "trials": 1000000000000}"""))
+                                 .build();
+        var response = client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        Thread.sleep(500);
+        long start = System.nanoTime();
+        slow.close();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10));
+        assertThat(response).succeedsWithin(Duration.ofSeconds(10))
+                            .returns(503, HttpResponse::statusCode);
+    }
+
+    @Test
+    void method() throws Exception {
+        var uri = URI.create("http://localhost:%d/equity".formatted(service.address().getPort()));
+        var response = client.send(
+            HttpRequest.newBuilder(uri).GET().build(),
+            HttpResponse.BodyHandlers.ofString()
+        );
+        assertThat(response.statusCode()).isEqualTo(405);
+    }
+
+    @Test
+    void json() {
+        assertThat(Json.parse("""
+            {"a": "b\\"c\\u0041", "n": -1.5e3}""")).containsExactly(
+            Map.entry("a", "b\"cA"),
+            Map.entry("n", "-1.5e3")
+        );
+        assertThat(Json.write(Map.of("a", "b\"c"))).isEqualTo("{\"a\":\"b\\\"c\"}");
+    }
+}